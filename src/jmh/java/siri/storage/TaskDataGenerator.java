@@ -0,0 +1,115 @@
+package siri.storage;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates synthetic task files in the {@code siri.txt} format for benchmarks.
+ * <p>
+ * The same count and seed always produce the same file, so benchmark results can be
+ * reproduced offline. Roughly a third of the tasks are each of todos, deadlines and events,
+ * and the events never overlap, so every generated file passes clash detection.
+ * </p>
+ * <p>
+ * Run it directly to write a file: {@code TaskDataGenerator <path> <count> [seed]}.
+ * </p>
+ */
+public class TaskDataGenerator {
+    private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 8, 0);
+    private static final String[] WORDS = {
+        "read", "book", "return", "project", "meeting", "report", "groceries", "call", "mum",
+        "lecture", "tutorial", "gym", "dinner", "review", "code", "email", "plan", "trip"
+    };
+
+    /**
+     * Returns the lines of a generated task file.
+     *
+     * @param count the number of tasks.
+     * @param seed  the seed of the random generator.
+     * @return one line for each task, in the format read by {@code Task.fromFileString}.
+     */
+    public static List<String> lines(int count, long seed) {
+        Random random = new Random(seed);
+        List<String> lines = new ArrayList<>(count);
+        int events = 0;
+        for (int i = 0; i < count; i++) {
+            String done = random.nextInt(4) == 0 ? "1" : "0";
+            String description = description(random);
+            switch (i % 3) {
+            case 0:
+                lines.add("T | " + done + " | " + description);
+                break;
+            case 1:
+                LocalDateTime by = START.plusMinutes(random.nextInt(60 * 24 * 365));
+                lines.add("D | " + done + " | " + description + " | " + by.format(FORMAT));
+                break;
+            default:
+                lines.add("E | " + done + " | " + description + " | " + eventLine(events++));
+                break;
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Returns the period of the given event, as written in a task file.
+     * Each event lasts an hour and starts two hours after the one before it.
+     *
+     * @param index the position of the event among all generated events.
+     * @return the start and end time separated by {@code " | "}.
+     */
+    public static String eventLine(int index) {
+        LocalDateTime from = START.plusHours(2L * index);
+        return from.format(FORMAT) + " | " + from.plusHours(1).format(FORMAT);
+    }
+
+    private static String description(Random random) {
+        int wordCount = 2 + random.nextInt(4);
+        StringBuilder description = new StringBuilder(WORDS[random.nextInt(WORDS.length)]);
+        for (int i = 1; i < wordCount; i++) {
+            description.append(' ').append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return description.toString();
+    }
+
+    /**
+     * Writes a generated task file.
+     *
+     * @param path  the file to write.
+     * @param count the number of tasks.
+     * @param seed  the seed of the random generator.
+     * @throws IOException if an I/O error occurs during file writing.
+     */
+    public static void write(Path path, int count, long seed) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            for (String line : lines(count, seed)) {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Writes a generated task file to the path given on the command line.
+     *
+     * @param args the path, the number of tasks and optionally the seed.
+     * @throws IOException if an I/O error occurs during file writing.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: TaskDataGenerator <path> <count> [seed]");
+            return;
+        }
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+        write(Paths.get(args[0]), Integer.parseInt(args[1]), seed);
+    }
+}
@@ -0,0 +1,54 @@
+package siri.tasktypes;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import siri.storage.TaskDataGenerator;
+
+/**
+ * Benchmarks converting tasks from and to lines of the task file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TaskBenchmark {
+    private static final int LINE_COUNT = 3000;
+
+    private List<String> lines;
+    private Task[] tasks;
+
+    @Setup
+    public void setUp() {
+        lines = TaskDataGenerator.lines(LINE_COUNT, 42);
+        tasks = new Task[LINE_COUNT];
+        for (int i = 0; i < LINE_COUNT; i++) {
+            tasks[i] = Task.fromFileString(lines.get(i));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINE_COUNT)
+    public void fromFileString(Blackhole blackhole) {
+        for (String line : lines) {
+            blackhole.consume(Task.fromFileString(line));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINE_COUNT)
+    public void toFileString(Blackhole blackhole) {
+        for (Task task : tasks) {
+            blackhole.consume(task.toFileString());
+        }
+    }
+}
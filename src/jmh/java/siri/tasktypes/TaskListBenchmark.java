@@ -0,0 +1,78 @@
+package siri.tasktypes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import siri.storage.TaskDataGenerator;
+
+/**
+ * Benchmarks adding tasks with clash detection and finding tasks by keyword.
+ * The task list holds the given number of non-overlapping events.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskListBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int eventCount;
+
+    private TaskList tasks;
+    private Event freeEvent;
+    private Event clashingEvent;
+
+    @Setup
+    public void setUp() {
+        List<Task> events = new ArrayList<>(eventCount);
+        for (int i = 0; i < eventCount; i++) {
+            String[] period = TaskDataGenerator.eventLine(i).split(" \\| ");
+            events.add(new Event(i % 2 == 0 ? "project meeting " + i : "gym session " + i, period[0], period[1]));
+        }
+        tasks = new TaskList(events);
+        String[] free = TaskDataGenerator.eventLine(eventCount).split(" \\| ");
+        freeEvent = new Event("dinner", free[0], free[1]);
+        String[] clashing = TaskDataGenerator.eventLine(eventCount / 2).split(" \\| ");
+        clashingEvent = new Event("call mum", clashing[0], clashing[1]);
+    }
+
+    /**
+     * Adds an event that clashes with nothing, then removes it again to keep the list unchanged.
+     */
+    @Benchmark
+    public Task addEvent() {
+        tasks.add(freeEvent);
+        return tasks.remove(tasks.size() - 1);
+    }
+
+    /**
+     * Tries to add an event that clashes with an event in the middle of the list.
+     */
+    @Benchmark
+    public String addClashingEvent() {
+        try {
+            tasks.add(clashingEvent);
+            return null;
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    public List<Task> findRareKeyword() {
+        return tasks.findTasks("meeting 4242");
+    }
+
+    @Benchmark
+    public List<Task> findCommonKeyword() {
+        return tasks.findTasks("gym");
+    }
+}
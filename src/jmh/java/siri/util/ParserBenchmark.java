@@ -0,0 +1,62 @@
+package siri.util;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import siri.exceptions.SiriException;
+
+/**
+ * Benchmarks parsing typical user commands.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ParserBenchmark {
+    private String command = "event project meeting /from 2026-12-29 1800 /to 2026-12-29 2000";
+    private String eventArguments = "project meeting /from 2026-12-29 1800 /to 2026-12-29 2000";
+    private String deadlineArguments = "return book /by 2026-12-29 1800";
+    private String dateTime = "2026-12-29 1800";
+    private LocalDateTime parsedDateTime = LocalDateTime.of(2026, 12, 29, 18, 0);
+
+    @Benchmark
+    public String[] parseCommand() throws SiriException {
+        return Parser.parseCommand(command);
+    }
+
+    @Benchmark
+    public String[] parseEvent() throws SiriException {
+        return Parser.parseEvent(eventArguments);
+    }
+
+    @Benchmark
+    public String[] parseDeadline() throws SiriException {
+        return Parser.parseDeadline(deadlineArguments);
+    }
+
+    @Benchmark
+    public LocalDateTime parseDateTime() {
+        return DateTimes.parse(dateTime);
+    }
+
+    @Benchmark
+    public LocalDateTime parseDateTimeWithFormatter() {
+        return LocalDateTime.parse(dateTime, DateTimes.FORMAT);
+    }
+
+    @Benchmark
+    public String formatDateTime() {
+        return DateTimes.format(parsedDateTime);
+    }
+
+    @Benchmark
+    public String formatDateTimeWithFormatter() {
+        return parsedDateTime.format(DateTimes.FORMAT);
+    }
+}
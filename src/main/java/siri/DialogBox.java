@@ -1,14 +1,10 @@
 package siri;
 
 import java.io.IOException;
-import java.util.Collections;
 
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.geometry.Pos;
-import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
@@ -17,6 +13,9 @@ import javafx.scene.layout.HBox;
 /**
  * Represents a dialog box consisting of an ImageView to represent the speaker's face
  * and a label containing text from the speaker.
+ * <p>
+ * A dialog box can be reused for another message through {@link #update(String, Image, boolean)}.
+ * </p>
  */
 public class DialogBox extends HBox {
     @FXML
@@ -24,7 +23,10 @@ public class DialogBox extends HBox {
     @FXML
     private ImageView displayPicture;
 
-    private DialogBox(String text, Image img) {
+    /**
+     * Creates an empty dialog box.
+     */
+    DialogBox() {
         try {
             FXMLLoader fxmlLoader = new FXMLLoader(MainWindow.class.getResource("/view/DialogBox.fxml"));
             fxmlLoader.setController(this);
@@ -33,28 +35,47 @@ public class DialogBox extends HBox {
         } catch (IOException e) {
             e.printStackTrace();
         }
+    }
 
+    /**
+     * Shows the given message in this dialog box.
+     * Messages from the user have the ImageView on the right, and messages from Siri have it on the left.
+     *
+     * @param text   the text of the message.
+     * @param img    the picture of the speaker, or {@code null} for none.
+     * @param isUser {@code true} if the message was typed by the user.
+     */
+    void update(String text, Image img, boolean isUser) {
         dialog.setText(text);
         displayPicture.setImage(img);
+        boolean isPictureFirst = getChildren().get(0) == displayPicture;
+        if (isUser == isPictureFirst) {
+            flip(isUser);
+        }
     }
 
     /**
-     * Flips the dialog box such that the ImageView is on the left and text on the right.
+     * Swaps the ImageView and the text, and aligns the box to the speaker's side.
      */
-    private void flip() {
-        ObservableList<Node> tmp = FXCollections.observableArrayList(this.getChildren());
-        Collections.reverse(tmp);
-        getChildren().setAll(tmp);
-        setAlignment(Pos.TOP_LEFT);
+    private void flip(boolean isUser) {
+        if (isUser) {
+            getChildren().setAll(dialog, displayPicture);
+            setAlignment(Pos.TOP_RIGHT);
+        } else {
+            getChildren().setAll(displayPicture, dialog);
+            setAlignment(Pos.TOP_LEFT);
+        }
     }
 
     public static DialogBox getUserDialog(String text, Image img) {
-        return new DialogBox(text, img);
+        var db = new DialogBox();
+        db.update(text, img, true);
+        return db;
     }
 
     public static DialogBox getSiriDialog(String text, Image img) {
-        var db = new DialogBox(text, img);
-        db.flip();
+        var db = new DialogBox();
+        db.update(text, img, false);
         return db;
     }
 }
@@ -0,0 +1,50 @@
+package siri;
+
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.image.Image;
+
+/**
+ * Displays a {@link DialogMessage} in the conversation list of the main window.
+ * <p>
+ * The list only creates enough cells to fill the visible area and reuses them while scrolling,
+ * so each cell loads its {@link DialogBox} once and only changes its contents afterwards.
+ * </p>
+ */
+public class DialogCell extends ListCell<DialogMessage> {
+    /** Width kept free for the vertical scroll bar, so that no horizontal scroll bar appears. */
+    private static final double SCROLL_BAR_WIDTH = 20.0;
+
+    private final DialogBox dialogBox = new DialogBox();
+    private final Image userImage;
+    private final Image siriImage;
+
+    /**
+     * Creates a cell for the given list.
+     *
+     * @param listView  the list the cell belongs to.
+     * @param userImage the picture shown next to messages from the user.
+     * @param siriImage the picture shown next to messages from Siri.
+     */
+    public DialogCell(ListView<DialogMessage> listView, Image userImage, Image siriImage) {
+        this.userImage = userImage;
+        this.siriImage = siriImage;
+        setPrefWidth(0);
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+        dialogBox.prefWidthProperty().bind(listView.widthProperty().subtract(SCROLL_BAR_WIDTH));
+        dialogBox.maxWidthProperty().bind(dialogBox.prefWidthProperty());
+    }
+
+    @Override
+    protected void updateItem(DialogMessage message, boolean isEmpty) {
+        super.updateItem(message, isEmpty);
+        if (isEmpty || message == null) {
+            setGraphic(null);
+            return;
+        }
+        Image image = message.isContinuation() ? null : message.isUser() ? userImage : siriImage;
+        dialogBox.update(message.getText(), image, message.isUser());
+        setGraphic(dialogBox);
+    }
+}
@@ -0,0 +1,66 @@
+package siri;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents one entry of the conversation shown in the main window.
+ * <p>
+ * Messages are plain data; the dialog boxes that display them are created by
+ * {@link DialogCell} and reused as the conversation is scrolled.
+ * </p>
+ */
+public class DialogMessage {
+    /** Number of lines after which a long response is split into several entries. */
+    static final int MAX_LINES = 100;
+
+    private final String text;
+    private final boolean isUser;
+    private final boolean isContinuation;
+
+    private DialogMessage(String text, boolean isUser, boolean isContinuation) {
+        this.text = text;
+        this.isUser = isUser;
+        this.isContinuation = isContinuation;
+    }
+
+    /**
+     * Returns the entries showing the given text.
+     * Texts longer than {@link #MAX_LINES} lines, such as the list of a large task list,
+     * are split into several entries, so that no single entry has to be laid out at once.
+     *
+     * @param text   the text of the message.
+     * @param isUser {@code true} if the message was typed by the user, {@code false} if it is from Siri.
+     * @return the entries showing the text, in order.
+     */
+    public static List<DialogMessage> of(String text, boolean isUser) {
+        assert text != null : "Dialog text should not be null";
+        List<DialogMessage> messages = new ArrayList<>();
+        int start = 0;
+        int lines = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n' && ++lines == MAX_LINES && i + 1 < text.length()) {
+                messages.add(new DialogMessage(text.substring(start, i), isUser, !messages.isEmpty()));
+                start = i + 1;
+                lines = 0;
+            }
+        }
+        messages.add(new DialogMessage(text.substring(start), isUser, !messages.isEmpty()));
+        return messages;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public boolean isUser() {
+        return isUser;
+    }
+
+    /**
+     * Returns whether this entry continues the text of the entry before it.
+     */
+    public boolean isContinuation() {
+        return isContinuation;
+    }
+}
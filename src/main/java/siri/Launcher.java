@@ -1,12 +1,23 @@
 package siri;
 
+import java.io.IOException;
+import java.util.Arrays;
+
 import javafx.application.Application;
 
 /**
  * A launcher class to workaround classpath issues.
+ * <p>
+ * With {@code --server [port]}, Siri runs without a window as a {@link SiriServer}
+ * that shares one task list with many clients.
+ * </p>
  */
 public class Launcher {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--server")) {
+            SiriServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         Application.launch(Main.class, args);
     }
-}
\ No newline at end of file
+}
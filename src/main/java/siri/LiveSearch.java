@@ -0,0 +1,296 @@
+package siri;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import siri.exceptions.InvalidCommandException;
+import siri.tasktypes.Task;
+import siri.util.Parser;
+
+/**
+ * Finds the tasks matching a {@code find} command while it is still being typed.
+ * <p>
+ * Each keystroke only cancels the search that is waiting and schedules a new one, so it never holds
+ * up the caller. Once the input has been still for {@link #DEBOUNCE_MILLIS}, the search is handed to
+ * the thread that runs Siri's commands, and gives up as soon as a newer keystroke arrives. Results
+ * match those of {@code find}, in the same order.
+ * </p>
+ * <p>
+ * Typing usually only extends the keyword, and every task containing the longer keyword is among
+ * the tasks found for the shorter one. Earlier results are therefore kept, for as long as the task
+ * list does not change, and a longer keyword only checks the tasks the last search found. Deleting
+ * characters goes back to the results already found for the shorter keyword. A keyword of three
+ * characters or more that extends nothing is looked up through the keyword index of the task list,
+ * and a shorter one scans the list. Whenever tasks are checked one by one, the first screenful of
+ * matches is reported as soon as it is found, before the check carries on.
+ * </p>
+ * <p>
+ * Since searches run between commands, on the same thread, they read the task list as it is,
+ * whatever its layout, without copying it. Any command may change the list, so earlier results
+ * are discarded once a command has run since they were found.
+ * </p>
+ */
+class LiveSearch {
+    /** How long the input has to be still before it is searched. */
+    static final long DEBOUNCE_MILLIS = 30;
+    /** Number of matches reported before the candidates have all been checked. */
+    static final int FIRST_RESULTS = 64;
+
+    private static final String FIND_PREFIX = "find ";
+    private static final int CANCEL_CHECK_INTERVAL = 4096;
+    private static final int MIN_INDEXED_LENGTH = 3;
+    /** Whether lowercasing an ASCII description leaves it ASCII, which it does in every locale but Turkish. */
+    private static final boolean IS_ASCII_LOWERCASE = "I".toLowerCase().equals("i");
+
+    private final Siri siri;
+    private final Executor commandExecutor;
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "siri-search-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong generation = new AtomicLong();
+    private ScheduledFuture<?> pending;
+
+    /** Results of earlier keywords, each containing the one below it. Only used on the command thread. */
+    private final Deque<Result> results = new ArrayDeque<>();
+    private long resultCommandCount = -1;
+
+    /**
+     * Receives the tasks found for a keyword.
+     */
+    interface Listener {
+        /**
+         * Called on the command thread with the tasks found so far.
+         *
+         * @param generation the number of the search, to be passed to {@link #isCurrent(long)}.
+         * @param matches    the matching tasks, in the order {@code find} lists them; never changed later.
+         * @param isComplete {@code false} if these are only the first matches and more will follow.
+         */
+        void onResults(long generation, List<Task> matches, boolean isComplete);
+    }
+
+    /**
+     * The tasks found for one lowercase keyword.
+     */
+    private static class Result {
+        private final String lowerKeyword;
+        private final List<Task> matches;
+
+        private Result(String lowerKeyword, List<Task> matches) {
+            this.lowerKeyword = lowerKeyword;
+            this.matches = matches;
+        }
+    }
+
+    /**
+     * Signals that a newer keystroke has made a search unnecessary.
+     */
+    private static class StaleSearchException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private StaleSearchException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Constructs a live search over the task list of the given Siri.
+     *
+     * @param siri            the Siri whose tasks are searched.
+     * @param commandExecutor the single thread that runs every command of that Siri, on which searches run too.
+     */
+    LiveSearch(Siri siri, Executor commandExecutor) {
+        assert siri != null : "Siri should not be null";
+        assert commandExecutor != null : "Command executor should not be null";
+        this.siri = siri;
+        this.commandExecutor = commandExecutor;
+    }
+
+    /**
+     * Returns the keyword of a {@code find} command being typed, or {@code null} if the input is not one.
+     * The keyword is the one {@code find} would search for. Input ending in paging options is left
+     * to the command itself.
+     *
+     * @param input the text typed so far.
+     * @return the keyword, or {@code null}.
+     */
+    static String parseKeyword(String input) {
+        if (input.length() <= FIND_PREFIX.length() || !input.regionMatches(true, 0, FIND_PREFIX, 0, FIND_PREFIX.length())) {
+            return null;
+        }
+        String keyword = input.substring(FIND_PREFIX.length()).stripTrailing();
+        try {
+            return keyword.isEmpty() || !Parser.parsePage(keyword).isAll() ? null : keyword;
+        } catch (InvalidCommandException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Searches for the keyword once the input has been still for {@link #DEBOUNCE_MILLIS},
+     * cancelling any search for an earlier keystroke.
+     *
+     * @param keyword  the keyword typed so far.
+     * @param listener receives the matches on the command thread, unless a newer keystroke arrives first.
+     */
+    synchronized void update(String keyword, Listener listener) {
+        long current = generation.incrementAndGet();
+        if (pending != null) {
+            pending.cancel(false);
+        }
+        pending = timer.schedule(() -> commandExecutor.execute(() -> run(keyword, current, listener)),
+                DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs a search on the command thread and reports its matches, unless a newer keystroke has arrived.
+     */
+    private void run(String keyword, long searchGeneration, Listener listener) {
+        if (!isCurrent(searchGeneration)) {
+            return;
+        }
+        try {
+            List<Task> matches = search(keyword, searchGeneration, listener);
+            if (isCurrent(searchGeneration)) {
+                listener.onResults(searchGeneration, matches, true);
+            }
+        } catch (StaleSearchException e) {
+            // A newer keystroke has its own search scheduled.
+        }
+    }
+
+    /**
+     * Cancels the search that is waiting or running, if any, such as when the input is no longer a {@code find}.
+     */
+    synchronized void cancel() {
+        generation.incrementAndGet();
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+    }
+
+    /**
+     * Returns whether the given search is for the latest keystroke.
+     *
+     * @param searchGeneration the number passed to {@link Listener#onResults(long, List, boolean)}.
+     * @return {@code true} if no keystroke has arrived since that search was scheduled.
+     */
+    boolean isCurrent(long searchGeneration) {
+        return generation.get() == searchGeneration;
+    }
+
+    /**
+     * Stops scheduling searches. Searches already handed to the command thread give up without reporting.
+     */
+    void shutdown() {
+        cancel();
+        timer.shutdownNow();
+    }
+
+    /**
+     * Finds the tasks containing the keyword, reusing the results of earlier keywords where possible.
+     * Must only be called on the thread that runs Siri's commands.
+     *
+     * @param keyword          the keyword.
+     * @param searchGeneration the number of this search, which stops it once it is no longer current.
+     * @param listener         receives the first matches while the rest are still being checked, or {@code null}.
+     * @return the matching tasks in list order.
+     */
+    List<Task> search(String keyword, long searchGeneration, Listener listener) {
+        String lowerKeyword = keyword.toLowerCase();
+        if (siri.getCommandCount() != resultCommandCount) {
+            results.clear();
+            resultCommandCount = siri.getCommandCount();
+        }
+        while (!results.isEmpty() && !lowerKeyword.contains(results.peek().lowerKeyword)) {
+            results.pop();
+        }
+        if (!results.isEmpty() && results.peek().lowerKeyword.equals(lowerKeyword)) {
+            return results.peek().matches;
+        }
+
+        List<Task> matches;
+        if (!results.isEmpty()) {
+            matches = filter(results.peek().matches, lowerKeyword, searchGeneration, listener);
+        } else if (lowerKeyword.length() >= MIN_INDEXED_LENGTH) {
+            matches = siri.findTasks(keyword);
+        } else {
+            matches = filter(siri.getTasks(), lowerKeyword, searchGeneration, listener);
+        }
+        results.push(new Result(lowerKeyword, matches));
+        return matches;
+    }
+
+    /**
+     * Returns the tasks among the candidates whose description contains the lowercase keyword,
+     * reporting the first {@link #FIRST_RESULTS} to the listener, if any, as soon as they are found.
+     * The candidates are iterated rather than indexed, which is cheaper for every layout of the task list.
+     *
+     * @throws StaleSearchException if a newer keystroke arrives while the candidates are checked.
+     */
+    private List<Task> filter(List<Task> candidates, String lowerKeyword, long searchGeneration, Listener listener) {
+        boolean isAsciiKeyword = IS_ASCII_LOWERCASE && isAscii(lowerKeyword);
+        List<Task> matches = new ArrayList<>();
+        int checked = 0;
+        for (Task task : candidates) {
+            if (checked++ % CANCEL_CHECK_INTERVAL == 0 && !isCurrent(searchGeneration)) {
+                throw new StaleSearchException();
+            }
+            if (contains(task.getDescription(), lowerKeyword, isAsciiKeyword)) {
+                matches.add(task);
+                if (listener != null && matches.size() == FIRST_RESULTS && isCurrent(searchGeneration)) {
+                    listener.onResults(searchGeneration, new ArrayList<>(matches), false);
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Returns whether the description contains the lowercase keyword, ignoring case, as {@code find} does.
+     * ASCII descriptions are compared in place, without lowercasing a copy of them.
+     */
+    private static boolean contains(String description, String lowerKeyword, boolean isAsciiKeyword) {
+        if (!isAsciiKeyword || !isAscii(description)) {
+            return description.toLowerCase().contains(lowerKeyword);
+        }
+        char first = lowerKeyword.charAt(0);
+        int last = description.length() - lowerKeyword.length();
+        for (int i = 0; i <= last; i++) {
+            if (toLowerAscii(description.charAt(i)) != first) {
+                continue;
+            }
+            int k = 1;
+            while (k < lowerKeyword.length() && toLowerAscii(description.charAt(i + k)) == lowerKeyword.charAt(k)) {
+                k++;
+            }
+            if (k == lowerKeyword.length()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 128) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static char toLowerAscii(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+}
@@ -15,10 +15,15 @@ import javafx.stage.Stage;
  * loading the FXML layout, setting up the primary stage (window),
  * and injecting the {@link Siri} instance into the {@link MainWindow} controller.
  * </p>
+ * <p>
+ * The window runs commands and live searches on one thread, so the task list is not shared and
+ * keeps the layout chosen with {@code -Dsiri.tasks.layout}, as in the CLI.
+ * </p>
  */
 public class Main extends Application {
 
-    private Siri siri = new Siri();
+    private Siri siri = new Siri(Siri.FILE_PATH);
+    private MainWindow mainWindow;
 
     /**
      * Called when the JavaFX application is started.
@@ -38,10 +43,24 @@ public class Main extends Application {
             Scene scene = new Scene(ap);
             stage.setScene(scene);
             stage.setTitle("Siri");
-            fxmlLoader.<MainWindow>getController().setSiri(siri);  // inject the Siri instance
+            mainWindow = fxmlLoader.getController();
+            mainWindow.setSiri(siri);  // inject the Siri instance
             stage.show();
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
+
+    /**
+     * Called when the JavaFX application is closed.
+     * Makes sure that changes still waiting to be written are saved before exiting.
+     */
+    @Override
+    public void stop() {
+        if (mainWindow != null) {
+            mainWindow.shutdown();
+        } else {
+            siri.close();
+        }
+    }
 }
@@ -1,69 +1,211 @@
 package siri;
 
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javafx.application.Platform;
 import javafx.fxml.FXML;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.scene.control.Button;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
 import javafx.scene.layout.AnchorPane;
-import javafx.scene.layout.VBox;
 
+import siri.tasktypes.Task;
 import siri.util.Ui;
 
 /**
  * Controller for the main GUI.
+ * <p>
+ * The conversation is kept as a list of {@link DialogMessage}s shown in a {@link ListView},
+ * which only creates dialog boxes for the messages currently on screen.
+ * </p>
+ * <p>
+ * Commands run one at a time, in the order they were entered, on a background thread,
+ * so that the window stays responsive while a slow command is running.
+ * </p>
+ * <p>
+ * While a {@code find} command is being typed, the conversation is covered by the tasks matching
+ * the keyword so far, found by a {@link LiveSearch} as each key is pressed. Like the conversation,
+ * the matches are shown in a {@link ListView}, which only renders the tasks on screen however many
+ * match. The search runs on the command thread between commands, so it reads the task list,
+ * whatever its layout, without copying it.
+ * </p>
  */
 public class MainWindow extends AnchorPane {
     @FXML
-    private ScrollPane scrollPane;
-    @FXML
-    private VBox dialogContainer;
+    private ListView<DialogMessage> dialogList;
     @FXML
     private TextField userInput;
     @FXML
     private Button sendButton;
+    @FXML
+    private ProgressIndicator progressIndicator;
+    @FXML
+    private ListView<Task> searchList;
+    @FXML
+    private Label searchPlaceholder;
 
     private Siri siri;
+    private LiveSearch liveSearch;
     private Ui ui = new Ui();
+    private final ObservableList<DialogMessage> messages = FXCollections.observableArrayList();
+    private final ExecutorService commandExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "siri-command");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /** Number of commands entered whose response is not shown yet. Only used on the FX thread. */
+    private int runningCommands = 0;
 
     private Image userImage = new Image(this.getClass().getResourceAsStream("/images/userImage.jpg"));
     private Image siriImage = new Image(this.getClass().getResourceAsStream("/images/siriImage.jpeg"));
 
     @FXML
     public void initialize() {
-        scrollPane.vvalueProperty().bind(dialogContainer.heightProperty());
-        dialogContainer.getChildren().add(
-                DialogBox.getSiriDialog(ui.getWelcomeMessage(), siriImage)
-        );
+        dialogList.setItems(messages);
+        dialogList.setCellFactory(listView -> new DialogCell(listView, userImage, siriImage));
+        messages.addAll(DialogMessage.of(ui.getWelcomeMessage(), false));
+        searchList.setCellFactory(listView -> new SearchResultCell());
+        userInput.textProperty().addListener((observable, oldInput, input) -> handleInputChange(input));
     }
 
     /** Injects the Siri instance */
     public void setSiri(Siri s) {
         siri = s;
+        liveSearch = new LiveSearch(s, commandExecutor);
+        if (s.getLoadWarning() != null) {
+            messages.addAll(DialogMessage.of(s.getLoadWarning(), false));
+        }
     }
 
     /**
-     * Creates two dialog boxes, one echoing user input and the other containing Duke's reply and then appends them to
-     * the dialog container. Clears the user input after processing.
+     * Searches for the tasks matching a {@code find} command as it is typed,
+     * and hides the matches once the input is something else.
+     */
+    private void handleInputChange(String input) {
+        if (liveSearch == null) {
+            return;
+        }
+        String keyword = LiveSearch.parseKeyword(input);
+        if (keyword == null) {
+            liveSearch.cancel();
+            searchList.setVisible(false);
+            return;
+        }
+        liveSearch.update(keyword, (generation, matches, isComplete) ->
+                Platform.runLater(() -> showSearchResults(generation, keyword, matches)));
+    }
+
+    /**
+     * Shows the tasks found for the keyword, unless the input has changed since they were searched for.
+     * The list of matches is wrapped rather than copied, so showing it takes the same time however long it is.
+     */
+    private void showSearchResults(long generation, String keyword, List<Task> matches) {
+        if (!liveSearch.isCurrent(generation)) {
+            return;
+        }
+        searchPlaceholder.setText("No tasks found containing: " + keyword);
+        searchList.setItems(FXCollections.observableList(matches));
+        searchList.setVisible(true);
+    }
+
+    /**
+     * Adds the user input to the conversation and runs it in the background.
+     * Siri's reply is added once the command has finished. Clears the user input straight away.
      */
     @FXML
     private void handleUserInput() {
         String input = userInput.getText();
-        String response = siri.getResponse(input);
-        dialogContainer.getChildren().addAll(
-                DialogBox.getUserDialog(input, userImage),
-                DialogBox.getSiriDialog(response, siriImage)
-        );
         userInput.clear();
+        searchList.setVisible(false);
+        addMessages(input, true);
+        runningCommands++;
+        progressIndicator.setVisible(true);
+        commandExecutor.execute(() -> runCommand(input));
+    }
 
-        if (siri.isExit()) {
+    /**
+     * Runs a command on the command thread and passes Siri's reply to the FX thread.
+     * A reply is always passed on, even if the command fails unexpectedly, so that
+     * the progress indicator is hidden once every command has finished.
+     */
+    private void runCommand(String input) {
+        String response = ui.getCommandFailedMessage();
+        boolean isExit = false;
+        try {
+            response = siri.getResponse(input);
+            isExit = siri.isExit();
+        } finally {
+            String shownResponse = response;
+            boolean isShownExit = isExit;
+            Platform.runLater(() -> showResponse(shownResponse, isShownExit));
+        }
+    }
+
+    /**
+     * Adds Siri's reply to the conversation, and closes the window after a short delay if it was a goodbye.
+     */
+    private void showResponse(String response, boolean isExit) {
+        addMessages(response, false);
+        runningCommands--;
+        progressIndicator.setVisible(runningCommands > 0);
+
+        if (isExit) {
             javafx.animation.PauseTransition delay =
                     new javafx.animation.PauseTransition(javafx.util.Duration.seconds(1.5));
             delay.setOnFinished(event -> {
-                javafx.application.Platform.exit();
+                Platform.exit();
                 System.exit(0);
             });
             delay.play();
         }
     }
+
+    /**
+     * Adds a message to the end of the conversation and scrolls to it.
+     */
+    private void addMessages(String text, boolean isUser) {
+        int firstNewMessage = messages.size();
+        messages.addAll(DialogMessage.of(text, isUser));
+        dialogList.scrollTo(firstNewMessage);
+    }
+
+    /**
+     * Lets the commands already entered finish, then saves and closes Siri's storage.
+     */
+    public void shutdown() {
+        if (liveSearch != null) {
+            liveSearch.shutdown();
+        }
+        commandExecutor.shutdown();
+        try {
+            commandExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        siri.close();
+    }
+
+    /**
+     * Shows a task found by the live search, numbered as {@code find} numbers it.
+     */
+    private static class SearchResultCell extends ListCell<Task> {
+        @Override
+        protected void updateItem(Task task, boolean isEmpty) {
+            super.updateItem(task, isEmpty);
+            if (isEmpty || task == null) {
+                setText(null);
+                return;
+            }
+            setText((getIndex() + 1) + "." + task + (task.getId() == 0 ? "" : " (#" + task.getId() + ")"));
+        }
+    }
 }
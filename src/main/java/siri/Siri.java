@@ -1,21 +1,41 @@
 package siri;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Scanner;
 
+import java.time.LocalDateTime;
+
 import siri.exceptions.SiriException;
 import siri.exceptions.TaskNotFoundException;
 import siri.exceptions.InvalidCommandException;
 import siri.storage.Storage;
+import siri.storage.StorageOptions;
+import siri.tasktypes.AbstractTaskList;
+import siri.tasktypes.ColumnarTaskList;
+import siri.tasktypes.ConcurrentTaskList;
 import siri.tasktypes.Deadline;
 import siri.tasktypes.Event;
 import siri.tasktypes.Task;
 import siri.tasktypes.ToDo;
 import siri.tasktypes.TaskList;
+import siri.util.CommandType;
+import siri.util.Metrics;
+import siri.util.Page;
 import siri.util.Ui;
+import siri.util.ParsedCommand;
 import siri.util.Parser;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 /**
  * Represents Siri, a personal desktop task assistant.
@@ -27,11 +47,21 @@ import java.io.IOException;
  * </p>
  */
 public class Siri {
-    private static final String FILE_PATH = "./data/siri.txt";
-    protected TaskList tasks;
+    static final String FILE_PATH = "./data/siri.txt";
+    private static final String STATS_PATH = "./data/siri-stats.txt";
+    private static final int DEFAULT_UPCOMING_COUNT = 5;
+    private static final String USAGE =
+            "Usage: java siri.Siri [--batch <file> [--commit-every <n>]]";
+    protected AbstractTaskList tasks;
     private Storage storage;
     private Ui ui;
     private boolean isExit = false;
+    private final ParsedCommand parsedCommand = new ParsedCommand();
+    private final Metrics metrics = new Metrics(Task.DESCRIPTIONS);
+    private final UndoHistory history = new UndoHistory();
+    private volatile boolean isFileTargetAllowed = true;
+    private volatile long commandCount;
+    private String loadWarning;
 
     /**
      * Constructs a {@code Siri} instance with the given file path for storage.
@@ -39,18 +69,57 @@ public class Siri {
      * @param filePath The path to the storage file.
      */
     public Siri(String filePath) {
+        this(filePath, false);
+    }
+
+    /**
+     * Constructs a {@code Siri} instance with the given file path for storage,
+     * whose task list can be shared by many threads.
+     *
+     * @param filePath The path to the storage file.
+     * @param isShared Whether the task list should be a {@link ConcurrentTaskList},
+     *                 so that {@link #getReadResponse(String)} can be called from any thread.
+     */
+    public Siri(String filePath, boolean isShared) {
         ui = new Ui();
-        storage = new Storage(filePath);
+        storage = new Storage(filePath, StorageOptions.fromSystemProperties(), metrics);
         try {
-            tasks = new TaskList(storage.load());
+            List<Task> loadedTasks = storage.load();
+            if (TaskList.assignMissingIds(loadedTasks, storage.getHighestId())) {
+                storage.save(loadedTasks);
+            }
+            tasks = isShared ? new ConcurrentTaskList(loadedTasks)
+                    : isColumnar() ? new ColumnarTaskList(loadedTasks) : new TaskList(loadedTasks);
+            tasks.reserveIds(storage.getHighestId());
+            if (storage.getCorruptLog() != null) {
+                loadWarning = ui.getCorruptLogMessage(storage.getCorruptLog().getFileName().toString(),
+                        storage.getCorruptLine());
+            }
         } catch (Exception e) {
-            tasks = new TaskList();
+            tasks = isShared ? new ConcurrentTaskList() : isColumnar() ? new ColumnarTaskList() : new TaskList();
         }
         assert tasks != null : "TaskList should be initialised";
         assert ui != null : "UI should be initialised";
         assert storage != null : "Storage should be initialised";
     }
 
+    /**
+     * Returns the warning to show at start-up if some saved changes could not be loaded.
+     *
+     * @return the warning, or {@code null} if everything was loaded.
+     */
+    public String getLoadWarning() {
+        return loadWarning;
+    }
+
+    /**
+     * Returns whether the tasks should be kept in a {@link ColumnarTaskList}, which is chosen by
+     * starting Siri with {@code -Dsiri.tasks.layout=columnar}. Shared task lists are never columnar.
+     */
+    private static boolean isColumnar() {
+        return "columnar".equalsIgnoreCase(System.getProperty("siri.tasks.layout"));
+    }
+
     /**
      * Overloaded Siri constructor that takes in no arguments
      */
@@ -66,19 +135,83 @@ public class Siri {
      */
     public String getResponse(String input) {
         assert input != null : "Input command should not be null";
+        commandCount++;
         try {
             if (input.trim().equalsIgnoreCase("bye")) {
                 isExit = true;
+                storage.commit(tasks::getAll);
+                storage.close();
                 return ui.getGoodbyeMessage();
             }
             String response = executeCommand(input);
-            storage.save(tasks.getAll());
+            persist();
             return response;
         } catch (SiriException | IOException e) {
             return ui.getErrorMessage(e.getMessage());
         }
     }
 
+    /**
+     * Returns the response to a command that only reads the task list, such as {@code list} or {@code find}.
+     * When the task list is shared, this can be called from many threads at once,
+     * alongside the one thread that runs every other command through {@link #getResponse(String)}.
+     *
+     * @param input the user input command
+     * @return the response from Siri, or {@code null} if the command changes the task list
+     */
+    public String getReadResponse(String input) {
+        assert input != null : "Input command should not be null";
+        try {
+            ParsedCommand command = parse(input, new ParsedCommand());
+            return command.getType().isReadOnly() ? execute(command) : null;
+        } catch (SiriException e) {
+            return ui.getErrorMessage(e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the tasks in list order. Unless the task list is shared, the list must only be
+     * read on the thread that runs commands through {@link #getResponse(String)}.
+     *
+     * @return the tasks in list order
+     */
+    List<Task> getTasks() {
+        return tasks.getAll();
+    }
+
+    /**
+     * Returns the number of commands run through {@link #getResponse(String)}, which changes
+     * whenever a command may have changed the task list.
+     *
+     * @return the number of commands run so far
+     */
+    long getCommandCount() {
+        return commandCount;
+    }
+
+    /**
+     * Returns the tasks whose description contains the keyword, in the order {@code find} lists them.
+     *
+     * @param keyword the search term
+     * @return the matching tasks
+     */
+    List<Task> findTasks(String keyword) {
+        return tasks.findTasks(keyword);
+    }
+
+    /**
+     * Writes any changes that are still queued and releases the storage files.
+     * Called when the application is shut down without the {@code bye} command.
+     */
+    public void close() {
+        try {
+            storage.commit(tasks::getAll);
+            storage.close();
+        } catch (IOException e) {
+            System.err.println(ui.getErrorMessage(e.getMessage()));
+        }
+    }
+
     /**
      * Executes the given command after parsing.
      *
@@ -88,41 +221,83 @@ public class Siri {
      */
     private String executeCommand(String command) throws SiriException {
         assert command != null : "Command should not be null";
-        String[] parsedCommand = Parser.parseCommand(command);
-        assert parsedCommand != null && parsedCommand.length > 0 : "Parsed command should not be null or empty";
-        return dispatchCommand(parsedCommand);
+        return execute(parse(command, parsedCommand));
+    }
+
+    /**
+     * Parses the given command into {@code parsedCommand}, timing the parse phase.
+     */
+    private ParsedCommand parse(String command, ParsedCommand parsedCommand) throws SiriException {
+        long start = System.nanoTime();
+        Parser.parse(command, parsedCommand);
+        metrics.recordCommand(parsedCommand.getType(), Metrics.Phase.PARSE, System.nanoTime() - start);
+        return parsedCommand;
+    }
+
+    /**
+     * Dispatches a parsed command, timing the execute phase.
+     */
+    private String execute(ParsedCommand parsedCommand) throws SiriException {
+        long start = System.nanoTime();
+        String response = dispatchCommand(parsedCommand);
+        metrics.recordCommand(parsedCommand.getType(), Metrics.Phase.EXECUTE, System.nanoTime() - start);
+        return response;
+    }
+
+    /**
+     * Saves the changes made by the last command, timing the persist phase.
+     */
+    private void persist() throws IOException {
+        long start = System.nanoTime();
+        storage.commit(tasks::getAll);
+        metrics.recordCommand(parsedCommand.getType(), Metrics.Phase.PERSIST, System.nanoTime() - start);
     }
 
     /**
      * Dispatches a parsed command to the appropriate action handler.
      *
-     * @param parsedCommand The parsed command tokens.
+     * @param parsedCommand The parsed command.
      * @return Siri's response after executing the action.
      * @throws SiriException If the command is invalid.
      */
-    private String dispatchCommand(String[] parsedCommand) throws SiriException {
-        String argument = parsedCommand[0].toLowerCase();
-        String userAction = parsedCommand.length > 1 ? parsedCommand[1] : "";
+    private String dispatchCommand(ParsedCommand parsedCommand) throws SiriException {
+        String userAction = parsedCommand.getArguments();
 
-        switch (argument) {
-        case "bye":
+        switch (parsedCommand.getType()) {
+        case BYE:
             return performExitAction();
-        case "list":
-            return performListAction();
-        case "mark":
+        case LIST:
+            return performListAction(userAction);
+        case MARK:
             return performMarkAction(userAction, true);
-        case "unmark":
+        case UNMARK:
             return performMarkAction(userAction, false);
-        case "todo":
+        case TODO:
             return performTodoAction(userAction);
-        case "event":
+        case EVENT:
             return performEventAction(userAction);
-        case "deadline":
+        case DEADLINE:
             return performDeadlineAction(userAction);
-        case "delete":
+        case DELETE:
             return performDeleteAction(userAction);
-        case "find":
+        case FIND:
             return performFindAction(userAction);
+        case OVERLAP:
+            return performOverlapAction(userAction);
+        case EXPORT:
+            return performExportAction(userAction);
+        case DUE:
+            return performDueAction(userAction);
+        case UPCOMING:
+            return performUpcomingAction(userAction);
+        case OVERDUE:
+            return performOverdueAction();
+        case STATS:
+            return performStatsAction(userAction);
+        case UNDO:
+            return performUndoAction();
+        case REDO:
+            return performRedoAction();
         default:
             throw new InvalidCommandException("Sorry :((( I don't know what that means");
         }
@@ -152,14 +327,22 @@ public class Siri {
      *
      * @return A formatted list of tasks.
      */
-    private String performListAction() {
-        return ui.getTaskListMessage(tasks.getAll());
+    private String performListAction(String arguments) throws SiriException {
+        return ui.getTaskListMessage(tasks.getAll(), parseListPage(arguments));
+    }
+
+    /**
+     * Parses the paging options of a list command. Any other text is ignored, as it always has been.
+     */
+    private static Page parseListPage(String arguments) throws InvalidCommandException {
+        return Parser.parsePage(arguments);
     }
 
     /**
      * Marks or unmarks a task as complete based on the user's input.
      *
-     * @param description The task number as a string.
+     * @param description The task number as a string, or {@code #} followed by the task ID,
+     *                    or a selection of several tasks such as {@code 1,5,9-20} or {@code done}.
      * @param isMark      {@code true} to mark, {@code false} to unmark.
      * @return A confirmation message about the task update.
      * @throws SiriException If the task number is invalid or not found.
@@ -171,19 +354,84 @@ public class Siri {
         if (description.isEmpty()) {
             throw new InvalidCommandException("Hi! Please specify a task number to " + (isMark ? "mark" : "unmark"));
         }
+        BitSet selection = parseTaskSelection(description);
+        if (selection.cardinality() != 1) {
+            BitSet changed = tasks.markAll(selection, isMark);
+            if (!changed.isEmpty()) {
+                storage.recordMarkAll(changed, isMark);
+                history.record(new UndoHistory.MarkChange(changed, isMark));
+            }
+            return ui.getTasksMarkedMessage(selection.cardinality(), isMark);
+        }
+        int index = selection.nextSetBit(0);
+        if (tasks.mark(index, isMark)) {
+            storage.recordMark(index, isMark);
+            BitSet changed = new BitSet();
+            changed.set(index);
+            history.record(new UndoHistory.MarkChange(changed, isMark));
+        }
+        Task task = tasks.get(index);
+        assert task != null : "Task at index should exist";
+        return ui.getTaskMarkedMessage(task, isMark);
+    }
+
+    /**
+     * Finds the tasks referred to by the user. The selection is {@code done} for every task that is done,
+     * or a comma-separated list of task references and inclusive ranges of task numbers, such as {@code 1,5,9-20}.
+     *
+     * @param selection The tasks to select.
+     * @return The 0-based indices of the selected tasks.
+     * @throws SiriException If a reference or range is invalid, or refers to a task that does not exist.
+     */
+    private BitSet parseTaskSelection(String selection) throws SiriException {
+        if (selection.trim().equalsIgnoreCase("done")) {
+            return tasks.findDone();
+        }
+        BitSet indices = new BitSet();
+        int itemStart = 0;
+        while (itemStart <= selection.length()) {
+            int itemEnd = selection.indexOf(',', itemStart);
+            if (itemEnd < 0) {
+                itemEnd = selection.length();
+            }
+            String item = selection.substring(itemStart, itemEnd).trim();
+            int dash = item.indexOf('-', 1);
+            if (dash < 0 || item.startsWith("#")) {
+                indices.set(parseTaskIndex(item));
+            } else {
+                int from = parseTaskIndex(item.substring(0, dash).trim());
+                int to = parseTaskIndex(item.substring(dash + 1).trim());
+                if (to < from) {
+                    throw new InvalidCommandException("Sorry, the range " + item + " is the wrong way round!");
+                }
+                indices.set(from, to + 1);
+            }
+            itemStart = itemEnd + 1;
+        }
+        return indices;
+    }
+
+    /**
+     * Finds the task referred to by the user, either by its number in the list or by its ID.
+     *
+     * @param reference The 1-based task number, or {@code #} followed by the task ID.
+     * @return The 0-based index of the task.
+     * @throws SiriException If the reference is not a number, or no such task exists.
+     */
+    private int parseTaskIndex(String reference) throws SiriException {
         try {
-            int index = Integer.parseInt(description) - 1;
+            if (reference.startsWith("#")) {
+                Task task = tasks.getById(Long.parseLong(reference.substring(1)));
+                if (task == null) {
+                    throw new TaskNotFoundException("Oops!! No task has the ID " + reference + " :(");
+                }
+                return tasks.indexOf(task);
+            }
+            int index = Integer.parseInt(reference) - 1;
             if (index < 0 || index >= tasks.size()) {
                 throw new TaskNotFoundException("Oops!! The task number provided does not exist :(");
             }
-            Task task = tasks.get(index);
-            assert task != null : "Task at index should exist";
-            if (isMark) {
-                task.markDone();
-            } else {
-                task.markUndone();
-            }
-            return ui.getTaskMarkedMessage(task, isMark);
+            return index;
         } catch (NumberFormatException e) {
             throw new InvalidCommandException("Sorry, please key in a valid task number!");
         }
@@ -201,9 +449,11 @@ public class Siri {
         if (description.isEmpty()) {
             throw new TaskNotFoundException("What is your todo task?");
         }
-        Task task = new ToDo(description);
+        Task task = new ToDo(Task.DESCRIPTIONS.intern(description));
         tasks.add(task);
-        assert tasks.get(tasks.size() - 1) == task : "Task should be added to the task list";
+        storage.recordAdd(task);
+        history.record(new UndoHistory.AddChange(task));
+        assert tasks.get(tasks.size() - 1).getId() == task.getId() : "Task should be added to the task list";
         return ui.getTaskAddedMessage(task, tasks.size());
     }
 
@@ -221,8 +471,10 @@ public class Siri {
         }
         String[] parts = Parser.parseEvent(arguments);
         try {
-            Task task = new Event(parts[0], parts[1], parts[2]);
+            Task task = new Event(Task.DESCRIPTIONS.intern(parts[0]), parts[1], parts[2]);
             tasks.add(task);
+            storage.recordAdd(task);
+            history.record(new UndoHistory.AddChange(task));
             return ui.getTaskAddedMessage(task, tasks.size());
         } catch (java.time.format.DateTimeParseException e) {
             throw new InvalidCommandException(
@@ -247,8 +499,10 @@ public class Siri {
         }
         String[] parts = Parser.parseDeadline(arguments);
         try {
-            Task task = new Deadline(parts[0], parts[1]);
+            Task task = new Deadline(Task.DESCRIPTIONS.intern(parts[0]), parts[1]);
             tasks.add(task);
+            storage.recordAdd(task);
+            history.record(new UndoHistory.AddChange(task));
             return ui.getTaskAddedMessage(task, tasks.size());
         } catch (java.time.format.DateTimeParseException e) {
             throw new InvalidCommandException(
@@ -259,7 +513,8 @@ public class Siri {
     /**
      * Deletes a task by its number.
      *
-     * @param arguments The task number to delete.
+     * @param arguments The task number to delete, or {@code #} followed by the task ID,
+     *                  or a selection of several tasks such as {@code 3-900} or {@code done}.
      * @return A confirmation message about the deleted task.
      * @throws SiriException If the task number is invalid or not found.
      */
@@ -269,17 +524,49 @@ public class Siri {
             throw new InvalidCommandException("Please specify a task number to delete");
         }
 
-        try {
-            int index = Integer.parseInt(arguments) - 1;
-            if (index < 0 || index >= tasks.size()) {
-                throw new TaskNotFoundException("Oops!! The task number provided does not exist :(");
+        BitSet selection = parseTaskSelection(arguments);
+        if (selection.cardinality() != 1) {
+            List<Task> removedTasks = tasks.removeAll(selection);
+            if (!removedTasks.isEmpty()) {
+                storage.recordDeleteAll(selection);
+                history.record(new UndoHistory.DeleteChange(selection, removedTasks));
             }
-            Task removedTask = tasks.remove(index);
-            assert removedTask != null : "Removed task should exist";
-            return ui.getTaskDeletedMessage(removedTask, tasks.size());
-        } catch (NumberFormatException e) {
-            throw new InvalidCommandException("Sorry, please key in a valid task number!");
+            return ui.getTasksDeletedMessage(removedTasks.size(), tasks.size());
+        }
+        int index = selection.nextSetBit(0);
+        Task removedTask = tasks.remove(index);
+        assert removedTask != null : "Removed task should exist";
+        storage.recordDelete(index);
+        history.record(new UndoHistory.DeleteChange(selection, new ArrayList<>(List.of(removedTask))));
+        return ui.getTaskDeletedMessage(removedTask, tasks.size());
+    }
+
+    /**
+     * Reverses the most recent change to the task list that has not been undone.
+     *
+     * @return A message describing the change that was undone.
+     * @throws SiriException If there is nothing to undo.
+     */
+    private String performUndoAction() throws SiriException {
+        UndoHistory.Change change = history.undo(tasks, storage);
+        if (change == null) {
+            throw new InvalidCommandException("There is nothing to undo!");
         }
+        return ui.getUndoMessage(change.describe(), tasks.size());
+    }
+
+    /**
+     * Makes the change that was undone most recently again.
+     *
+     * @return A message describing the change that was redone.
+     * @throws SiriException If there is nothing to redo.
+     */
+    private String performRedoAction() throws SiriException {
+        UndoHistory.Change change = history.redo(tasks, storage);
+        if (change == null) {
+            throw new InvalidCommandException("There is nothing to redo!");
+        }
+        return ui.getRedoMessage(change.describe(), tasks.size());
     }
 
     /**
@@ -290,40 +577,317 @@ public class Siri {
      */
     protected String performFindAction(String keyword) throws SiriException {
         assert keyword != null : "Search keyword should not be null";
-        if (keyword.isEmpty()) {
+        Page page = parseFindPage(keyword);
+        List<Task> matchingTasks = tasks.findTasks(page.getRemainder());
+        assert matchingTasks != null : "Matching tasks list should not be null";
+        return ui.getMatchingTasksMessage(matchingTasks, page.getRemainder(), page);
+    }
+
+    /**
+     * Parses the keyword and paging options of a find command.
+     */
+    private static Page parseFindPage(String arguments) throws InvalidCommandException {
+        Page page = Parser.parsePage(arguments);
+        if (page.getRemainder().isEmpty()) {
             throw new InvalidCommandException("Please specify a keyword to search for. Example: find book");
         }
+        return page;
+    }
 
-        List<Task> matchingTasks = tasks.findTasks(keyword);
-        assert matchingTasks != null : "Matching tasks list should not be null";
-        return ui.getMatchingTasksMessage(matchingTasks, keyword);
+    /**
+     * Records the time since {@code start} as a phase of the command.
+     *
+     * @return the time at which the phase ended, which is when the next phase starts.
+     */
+    private long recordPhase(CommandType type, Metrics.Phase phase, long start) {
+        long end = System.nanoTime();
+        metrics.recordCommand(type, phase, end - start);
+        return end;
+    }
+
+    /**
+     * Executes the given command and writes Siri's response to the output.
+     * Task lists are written one task at a time instead of being built into a single string,
+     * so listing a large task list takes no more memory than listing a short one.
+     *
+     * @param command The raw command input.
+     * @param out     Where the response is written.
+     * @throws SiriException If the command is invalid or cannot be executed.
+     * @throws IOException   If the output cannot be written.
+     */
+    private void writeResponse(String command, Appendable out) throws SiriException, IOException {
+        assert command != null : "Command should not be null";
+        CommandType type = parse(command, parsedCommand).getType();
+        long start = System.nanoTime();
+        switch (type) {
+        case LIST:
+            Page listPage = parseListPage(parsedCommand.getArguments());
+            List<Task> allTasks = tasks.getAll();
+            start = recordPhase(type, Metrics.Phase.EXECUTE, start);
+            ui.appendTaskListMessage(out, allTasks, listPage);
+            break;
+        case FIND:
+            Page findPage = parseFindPage(parsedCommand.getArguments());
+            List<Task> matchingTasks = tasks.findTasks(findPage.getRemainder());
+            start = recordPhase(type, Metrics.Phase.EXECUTE, start);
+            ui.appendMatchingTasksMessage(out, matchingTasks, findPage.getRemainder(), findPage);
+            break;
+        default:
+            String response = dispatchCommand(parsedCommand);
+            start = recordPhase(type, Metrics.Phase.EXECUTE, start);
+            out.append(response);
+        }
+        recordPhase(type, Metrics.Phase.RENDER, start);
+    }
+
+    /**
+     * Finds and displays events that overlap the given time period.
+     *
+     * @param arguments the period in the format "/from datetime /to datetime".
+     * @return a formatted list of the overlapping events.
+     * @throws SiriException if the period is empty or invalid.
+     */
+    protected String performOverlapAction(String arguments) throws SiriException {
+        assert arguments != null : "Overlap arguments should not be null";
+        LocalDateTime[] period = Parser.parsePeriod(arguments);
+        List<Event> overlappingEvents = tasks.findOverlapping(period[0], period[1]);
+        assert overlappingEvents != null : "Overlapping events list should not be null";
+        return ui.getOverlappingEventsMessage(overlappingEvents);
+    }
+
+    /**
+     * Lists the deadlines and events that are not done and are due by the given date.
+     *
+     * @param arguments The date in the format "yyyy-MM-dd", optionally followed by a time "HHmm".
+     * @return A list of the tasks due by then, earliest first.
+     * @throws SiriException If the date is missing or invalid.
+     */
+    protected String performDueAction(String arguments) throws SiriException {
+        assert arguments != null : "Due arguments should not be null";
+        LocalDateTime end = Parser.parseDueDate(arguments);
+        return ui.getDueTasksMessage(tasks.findDueBefore(end));
+    }
+
+    /**
+     * Lists the next deadlines and events that are not done.
+     *
+     * @param arguments The number of tasks to list, or an empty string for the default of 5.
+     * @return A list of the upcoming tasks, earliest first.
+     * @throws SiriException If the number is invalid.
+     */
+    protected String performUpcomingAction(String arguments) throws SiriException {
+        assert arguments != null : "Upcoming arguments should not be null";
+        int count = Parser.parseCount(arguments, DEFAULT_UPCOMING_COUNT);
+        return ui.getUpcomingTasksMessage(tasks.findUpcoming(LocalDateTime.now(), count));
+    }
+
+    /**
+     * Lists the deadlines that are not done and have passed.
+     *
+     * @return A list of the overdue deadlines, earliest first.
+     */
+    private String performOverdueAction() {
+        return ui.getOverdueTasksMessage(tasks.findOverdue(LocalDateTime.now()));
+    }
+
+    /**
+     * Writes all tasks to a text file, for example to switch back from the binary storage format.
+     *
+     * @param target the file to write, or an empty string for Siri's own text data file.
+     * @return a confirmation message with the location of the file.
+     * @throws SiriException if the file cannot be written.
+     */
+    protected String performExportAction(String target) throws SiriException {
+        assert target != null : "Export target should not be null";
+        checkFileTarget(target);
+        try {
+            Path exportedPath = storage.exportText(tasks.getAll(), target.isEmpty() ? null : target.trim());
+            return ui.getTasksExportedMessage(tasks.size(), exportedPath.toString());
+        } catch (IOException e) {
+            throw new SiriException("Sorry, I could not export your tasks: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Shows the timings recorded since Siri started, or writes them to a file with {@code stats export [file]}.
+     *
+     * @param arguments nothing to show the timings, or {@code export} followed by an optional file.
+     * @return the timings, or a message saying where they were written.
+     * @throws SiriException if the arguments are invalid or the file cannot be written.
+     */
+    protected String performStatsAction(String arguments) throws SiriException {
+        if (arguments.isEmpty()) {
+            return ui.getStatsMessage(metrics.getReport());
+        }
+        if (!arguments.equals("export") && !arguments.startsWith("export ")) {
+            throw new InvalidCommandException("Please key in stats, or stats export [file]. Example: stats export");
+        }
+        String target = arguments.substring("export".length()).trim();
+        checkFileTarget(target);
+        Path path = Paths.get(target.isEmpty() ? STATS_PATH : target);
+        try {
+            metrics.export(path);
+            return ui.getStatsExportedMessage(path.toString());
+        } catch (IOException e) {
+            throw new SiriException("Sorry, I could not export the stats: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops {@code export} and {@code stats export} from writing to a file named in the command,
+     * so that they only write to their usual files in the data folder. Used when the commands
+     * come from other people, such as the clients of a {@link SiriServer}.
+     */
+    void disallowFileTargets() {
+        isFileTargetAllowed = false;
+    }
+
+    /**
+     * Rejects a file named in a command if files may only be written to their usual location.
+     *
+     * @param target the file named in the command, or an empty string for the usual file.
+     * @throws SiriException if a file is named and {@link #disallowFileTargets()} was called.
+     */
+    private void checkFileTarget(String target) throws SiriException {
+        if (!isFileTargetAllowed && !target.isEmpty()) {
+            throw new SiriException("Sorry, I can only write to my own data folder here. "
+                    + "Please leave out the file name.");
+        }
     }
 
     /**
      * Entry point for running Siri in CLI mode.
+     * <p>
+     * With {@code --batch <file>}, the commands in the file (or standard input for {@code -})
+     * are run as a script instead. {@code --commit-every <n>} saves the changes after every
+     * {@code n} commands instead of only at the end. Other arguments print the usage and exit
+     * with a non-zero status.
+     * </p>
      *
      * @param args Command-line arguments.
      */
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--batch")) {
+            int commitInterval = parseCommitInterval(args);
+            if (commitInterval < 0) {
+                System.err.println(USAGE);
+                System.exit(2);
+            }
+            runBatch(args[1], commitInterval);
+            return;
+        }
         new Siri(FILE_PATH).run();
     }
 
+    /**
+     * Returns the commit interval given by the {@code --batch} arguments, 0 if none is given,
+     * or -1 if the arguments are malformed.
+     *
+     * @param args the command-line arguments, starting with {@code --batch}.
+     * @return the commit interval, or -1 if there is no file or the interval is not a positive integer.
+     */
+    static int parseCommitInterval(String[] args) {
+        assert args.length > 0 && args[0].equals("--batch") : "Arguments should start with --batch";
+        if (args.length == 2) {
+            return 0;
+        }
+        if (args.length != 4 || !args[2].equals("--commit-every")) {
+            return -1;
+        }
+        try {
+            int interval = Integer.parseInt(args[3]);
+            return interval > 0 ? interval : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Runs the commands in the given script file and reports the throughput to standard error.
+     */
+    private static void runBatch(String scriptPath, int commitInterval) {
+        Siri siri = new Siri(FILE_PATH);
+        try (BufferedReader in = scriptPath.equals("-")
+                     ? new BufferedReader(new InputStreamReader(System.in))
+                     : Files.newBufferedReader(Paths.get(scriptPath));
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(System.out))) {
+            long start = System.nanoTime();
+            int commandCount = siri.runBatch(in, out, commitInterval);
+            out.flush();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.err.printf("Ran %d commands in %.3f s (%.0f commands/s)%n",
+                    commandCount, seconds, commandCount / Math.max(seconds, 1e-9));
+        } catch (IOException e) {
+            System.err.println(siri.ui.getErrorMessage(e.getMessage()));
+        }
+    }
+
+    /**
+     * Runs every command read from the input without prompts, until the input ends or {@code bye} is run.
+     * Responses are written to the output, which is only flushed by the caller.
+     * Changes are saved every {@code commitInterval} commands, and always once at the end.
+     *
+     * @param in             the commands, one on each line.
+     * @param out            where the responses are written.
+     * @param commitInterval the number of commands between saves, or 0 to save only at the end.
+     * @return the number of commands run.
+     * @throws IOException if the input cannot be read or the output cannot be written.
+     */
+    int runBatch(BufferedReader in, Writer out, int commitInterval) throws IOException {
+        assert commitInterval >= 0 : "Commit interval should not be negative";
+        int commandCount = 0;
+        String command;
+        while (!isExit && (command = in.readLine()) != null) {
+            try {
+                writeResponse(command, out);
+            } catch (SiriException e) {
+                out.write(ui.getErrorMessage(e.getMessage()));
+            }
+            out.write(System.lineSeparator());
+            commandCount++;
+            if (commitInterval > 0 && commandCount % commitInterval == 0) {
+                commit(out);
+            }
+        }
+        commit(out);
+        close();
+        return commandCount;
+    }
+
+    /**
+     * Saves the changes made so far, writing any error to the output.
+     */
+    private void commit(Writer out) throws IOException {
+        try {
+            storage.commit(tasks::getAll);
+        } catch (IOException e) {
+            out.write(ui.getErrorMessage(e.getMessage()));
+            out.write(System.lineSeparator());
+        }
+    }
+
     /**
      * Runs the CLI loop for Siri, continuously processing user input until exit.
      */
     private void run() {
         ui.sayWelcome();
+        if (loadWarning != null) {
+            System.out.println(loadWarning);
+        }
         Scanner scanner = new Scanner(System.in);
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out));
 
         while (!isExit) {
             String command = scanner.nextLine();
             try {
-                String response = executeCommand(command);
-                System.out.println(response);
-                storage.save(tasks.getAll());
+                writeResponse(command, out);
+                out.write(System.lineSeparator());
+                out.flush();
+                persist();
             } catch (SiriException | IOException e) {
                 System.out.println(ui.getErrorMessage(e.getMessage()));
             }
         }
+        close();
     }
 }
\ No newline at end of file
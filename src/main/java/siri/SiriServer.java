@@ -0,0 +1,228 @@
+package siri;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import siri.util.Ui;
+
+/**
+ * Shares one {@link Siri} task list with many clients over HTTP.
+ * <p>
+ * Clients send a command, in the same language as the CLI and GUI, as the body of a
+ * {@code POST /command} request, and receive Siri's response as plain text. For example:
+ * {@code curl --data 'todo read book' http://localhost:5050/command}.
+ * </p>
+ * <p>
+ * Connections are accepted by the JDK {@link HttpServer}, which waits on idle connections
+ * without holding a thread for each, and each request is handled on its own virtual thread
+ * when the JDK has them (or a pooled thread otherwise). Commands that change the task list
+ * are put on a single queue and run one at a time by a single writer thread, so changes and
+ * storage are only ever handled by one thread, exactly as in the single-user modes.
+ * Commands that only read the list, such as {@code list} and {@code find}, run straight away
+ * on the request's own thread against the {@link siri.tasktypes.ConcurrentTaskList} of a shared Siri.
+ * </p>
+ * <p>
+ * A command must fit on one line, as tasks are stored one per line; a body with a line break
+ * before its end is rejected. {@code bye} only ends the client's session; the server keeps running until {@link #stop()}.
+ * Clients cannot name the file {@code export} or {@code stats export} writes to, since the
+ * server would write it with its own permissions; both only write to their usual files.
+ * </p>
+ */
+public class SiriServer {
+    /** Port used when none is given on the command line. */
+    public static final int DEFAULT_PORT = 5050;
+
+    private static final int MAX_QUEUED_COMMANDS = 10_000;
+    private static final int MAX_COMMAND_BYTES = 64 * 1024;
+
+    private final Siri siri;
+    private final Ui ui = new Ui();
+    private final HttpServer server;
+    private final ExecutorService requestExecutor = newRequestExecutor();
+    private final ThreadPoolExecutor commandWriter = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(MAX_QUEUED_COMMANDS), runnable -> new Thread(runnable, "siri-writer"));
+
+    /**
+     * Creates a server for the given Siri, listening on the given address.
+     * The server does not accept connections until {@link #start()} is called.
+     *
+     * @param siri    the Siri whose task list is shared, created with {@code isShared} set.
+     * @param address the address to listen on; port 0 picks a free port.
+     * @throws IOException if the address cannot be bound.
+     */
+    public SiriServer(Siri siri, InetSocketAddress address) throws IOException {
+        assert siri != null : "Siri should not be null";
+        this.siri = siri;
+        siri.disallowFileTargets();
+        this.server = HttpServer.create(address, 0);
+        server.createContext("/command", this::handleCommand);
+        server.setExecutor(requestExecutor);
+    }
+
+    /**
+     * Starts a server for the default task file and runs it until the process is stopped.
+     * The server listens on the loopback address unless the {@code siri.server.host}
+     * system property names another, such as {@code 0.0.0.0} to share it with other machines.
+     *
+     * @param args the port to listen on, or nothing for {@link #DEFAULT_PORT}.
+     * @throws IOException if the address cannot be bound.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        String host = System.getProperty("siri.server.host");
+        InetAddress address = host == null ? InetAddress.getLoopbackAddress() : InetAddress.getByName(host);
+
+        SiriServer siriServer = new SiriServer(new Siri(Siri.FILE_PATH, true), new InetSocketAddress(address, port));
+        Runtime.getRuntime().addShutdownHook(new Thread(siriServer::stop, "siri-server-shutdown"));
+        siriServer.start();
+        System.err.println("Siri is listening on http://" + address.getHostAddress() + ":"
+                + siriServer.getPort() + "/command");
+    }
+
+    /**
+     * Starts accepting connections.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Returns the port the server listens on.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting connections, runs the commands already queued, and saves the task list.
+     */
+    public void stop() {
+        server.stop(0);
+        commandWriter.shutdown();
+        try {
+            commandWriter.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        requestExecutor.shutdown();
+        siri.close();
+    }
+
+    /**
+     * Handles a request to {@code /command}, closing the exchange once the response is sent.
+     */
+    private void handleCommand(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            respond(exchange);
+        }
+    }
+
+    /**
+     * Runs the command in the body of a request on the writer thread and sends back the response.
+     */
+    private void respond(HttpExchange exchange) throws IOException {
+        try {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                send(exchange, 405, "Please send the command as the body of a POST request.");
+                return;
+            }
+            byte[] body = readBody(exchange.getRequestBody());
+            if (body == null) {
+                send(exchange, 413, "Sorry, that command is too long.");
+                return;
+            }
+            String command = stripLineBreak(new String(body, StandardCharsets.UTF_8));
+            if (command.indexOf('\n') >= 0 || command.indexOf('\r') >= 0) {
+                send(exchange, 400, "Please send one command at a time, on a single line.");
+                return;
+            }
+            if (command.trim().equalsIgnoreCase("bye")) {
+                send(exchange, 200, ui.getGoodbyeMessage());
+                return;
+            }
+
+            String response = siri.getReadResponse(command);
+            send(exchange, 200, response != null ? response : runCommand(command));
+        } catch (RejectedExecutionException e) {
+            send(exchange, 503, "Sorry, Siri is busy. Please try again later.");
+        } catch (ExecutionException e) {
+            send(exchange, 500, ui.getErrorMessage(String.valueOf(e.getCause().getMessage())));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            send(exchange, 503, "Sorry, Siri is shutting down.");
+        }
+    }
+
+    /**
+     * Queues the command behind those of other clients and waits for its response.
+     *
+     * @throws RejectedExecutionException if the queue is full or the server is stopping.
+     */
+    private String runCommand(String command) throws ExecutionException, InterruptedException {
+        Future<String> response = commandWriter.submit(() -> siri.getResponse(command));
+        return response.get();
+    }
+
+    /**
+     * Reads the whole request body, or returns {@code null} if it is longer than a command may be.
+     */
+    private static byte[] readBody(InputStream in) throws IOException {
+        byte[] body = in.readNBytes(MAX_COMMAND_BYTES + 1);
+        return body.length > MAX_COMMAND_BYTES ? null : body;
+    }
+
+    /**
+     * Removes the line break that tools like {@code curl} or {@code echo} may add after the command.
+     */
+    private static String stripLineBreak(String command) {
+        int end = command.length();
+        while (end > 0 && (command.charAt(end - 1) == '\n' || command.charAt(end - 1) == '\r')) {
+            end--;
+        }
+        return command.substring(0, end);
+    }
+
+    /**
+     * Sends a plain text response.
+     */
+    private static void send(HttpExchange exchange, int status, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Returns an executor that runs each request on a new virtual thread, falling back to a
+     * pool of daemon threads on JDKs without virtual threads.
+     */
+    private static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "siri-request");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
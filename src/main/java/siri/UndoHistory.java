@@ -0,0 +1,246 @@
+package siri;
+
+import java.util.BitSet;
+import java.util.List;
+
+import siri.storage.Storage;
+import siri.tasktypes.AbstractTaskList;
+import siri.tasktypes.Task;
+
+/**
+ * Remembers the most recent changes to the task list so that they can be undone and redone.
+ * <p>
+ * Each change is kept as just enough information to reverse it in place, such as the positions
+ * and tasks removed by a {@code delete}, rather than as a copy of the list. Undoing or redoing a
+ * change therefore costs O(log n) for each task it touches, and is saved as ordinary records in
+ * the log of changes instead of rewriting the whole file.
+ * </p>
+ * <p>
+ * The changes are held in a ring buffer of fixed capacity, so the oldest change is forgotten once
+ * it is full. Making a new change discards every change that was undone but not redone.
+ * </p>
+ */
+class UndoHistory {
+    static final int DEFAULT_CAPACITY = 100;
+
+    private final Change[] changes;
+    private int start;
+    private int undoCount;
+    private int redoCount;
+
+    /**
+     * A change to the task list that knows how to reverse and repeat itself.
+     */
+    interface Change {
+        /**
+         * Reverses the change, recording the reversal in storage.
+         */
+        void undo(AbstractTaskList tasks, Storage storage);
+
+        /**
+         * Makes the change again after it was undone, recording it in storage.
+         */
+        void redo(AbstractTaskList tasks, Storage storage);
+
+        /**
+         * Returns a short description of the change for the user, such as {@code deleting 3 tasks}.
+         */
+        String describe();
+    }
+
+    /**
+     * Constructs a history remembering up to {@link #DEFAULT_CAPACITY} changes.
+     */
+    UndoHistory() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a history remembering up to the given number of changes.
+     *
+     * @param capacity the number of changes that can be undone.
+     */
+    UndoHistory(int capacity) {
+        assert capacity > 0 : "Undo history should hold at least one change";
+        changes = new Change[capacity];
+    }
+
+    /**
+     * Remembers a change that was just made, forgetting the oldest change if the history is full
+     * and every change that could have been redone.
+     *
+     * @param change the change that was made.
+     */
+    void record(Change change) {
+        assert change != null : "Recorded change should not be null";
+        for (int i = 0; i < redoCount; i++) {
+            changes[slot(undoCount + i)] = null;
+        }
+        redoCount = 0;
+        changes[slot(undoCount)] = change;
+        if (undoCount == changes.length) {
+            start = slot(1);
+        } else {
+            undoCount++;
+        }
+    }
+
+    /**
+     * Undoes the most recent change that has not been undone.
+     *
+     * @param tasks   the task list to change.
+     * @param storage the storage to record the reversal in.
+     * @return the change that was undone, or {@code null} if there is nothing to undo.
+     */
+    Change undo(AbstractTaskList tasks, Storage storage) {
+        if (undoCount == 0) {
+            return null;
+        }
+        Change change = changes[slot(undoCount - 1)];
+        change.undo(tasks, storage);
+        undoCount--;
+        redoCount++;
+        return change;
+    }
+
+    /**
+     * Redoes the change that was undone most recently.
+     *
+     * @param tasks   the task list to change.
+     * @param storage the storage to record the change in.
+     * @return the change that was redone, or {@code null} if there is nothing to redo.
+     */
+    Change redo(AbstractTaskList tasks, Storage storage) {
+        if (redoCount == 0) {
+            return null;
+        }
+        Change change = changes[slot(undoCount)];
+        change.redo(tasks, storage);
+        undoCount++;
+        redoCount--;
+        return change;
+    }
+
+    /**
+     * Returns the position in the buffer of the change the given number of places after the oldest one.
+     */
+    private int slot(int offset) {
+        return (start + offset) % changes.length;
+    }
+
+    /**
+     * A task added to the end of the list.
+     */
+    static class AddChange implements Change {
+        private Task task;
+
+        /**
+         * @param task the task that was added.
+         */
+        AddChange(Task task) {
+            this.task = task;
+        }
+
+        @Override
+        public void undo(AbstractTaskList tasks, Storage storage) {
+            int index = tasks.size() - 1;
+            assert tasks.get(index).getId() == task.getId() : "Added task should still be the last task";
+            task = tasks.remove(index);
+            storage.recordDelete(index);
+        }
+
+        @Override
+        public void redo(AbstractTaskList tasks, Storage storage) {
+            tasks.add(task);
+            storage.recordAdd(task);
+        }
+
+        @Override
+        public String describe() {
+            return "adding " + task;
+        }
+    }
+
+    /**
+     * Tasks removed from the list by one command.
+     */
+    static class DeleteChange implements Change {
+        private final BitSet indices;
+        private final List<Task> removed;
+
+        /**
+         * @param indices the 0-based indices the tasks were removed from.
+         * @param removed the tasks that were removed, in list order.
+         */
+        DeleteChange(BitSet indices, List<Task> removed) {
+            assert indices.cardinality() == removed.size() : "Every removed task should have an index";
+            this.indices = indices;
+            this.removed = removed;
+        }
+
+        @Override
+        public void undo(AbstractTaskList tasks, Storage storage) {
+            int k = 0;
+            for (int i = indices.nextSetBit(0); i >= 0; i = indices.nextSetBit(i + 1)) {
+                Task task = removed.get(k++);
+                tasks.insert(i, task);
+                storage.recordInsert(i, task);
+            }
+        }
+
+        @Override
+        public void redo(AbstractTaskList tasks, Storage storage) {
+            if (removed.size() == 1) {
+                int index = indices.nextSetBit(0);
+                removed.set(0, tasks.remove(index));
+                storage.recordDelete(index);
+                return;
+            }
+            List<Task> removedAgain = tasks.removeAll(indices);
+            for (int k = 0; k < removedAgain.size(); k++) {
+                removed.set(k, removedAgain.get(k));
+            }
+            storage.recordDeleteAll(indices);
+        }
+
+        @Override
+        public String describe() {
+            return removed.size() == 1 ? "deleting " + removed.get(0) : "deleting " + removed.size() + " tasks";
+        }
+    }
+
+    /**
+     * Tasks marked or unmarked by one command. Only the tasks whose state changed are kept,
+     * so that undoing leaves tasks that were already in that state alone.
+     */
+    static class MarkChange implements Change {
+        private final BitSet changed;
+        private final boolean isDone;
+
+        /**
+         * @param changed the 0-based indices of the tasks that changed.
+         * @param isDone  {@code true} if the tasks were marked as done, {@code false} if unmarked.
+         */
+        MarkChange(BitSet changed, boolean isDone) {
+            this.changed = changed;
+            this.isDone = isDone;
+        }
+
+        @Override
+        public void undo(AbstractTaskList tasks, Storage storage) {
+            tasks.markAll(changed, !isDone);
+            storage.recordMarkAll(changed, !isDone);
+        }
+
+        @Override
+        public void redo(AbstractTaskList tasks, Storage storage) {
+            tasks.markAll(changed, isDone);
+            storage.recordMarkAll(changed, isDone);
+        }
+
+        @Override
+        public String describe() {
+            return (isDone ? "marking " : "unmarking ") + changed.cardinality() + " task(s)";
+        }
+    }
+}
@@ -8,6 +8,7 @@ package siri.exceptions;
  * @see SiriException
  */
 public class InvalidCommandException extends SiriException {
+    private static final long serialVersionUID = 1L;
 
     /**
      * Constructs a new InvalidCommandException with a detailed message.
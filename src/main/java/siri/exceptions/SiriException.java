@@ -12,6 +12,7 @@ package siri.exceptions;
  * @see TaskNotFoundException
  */
 public class SiriException extends Exception {
+    private static final long serialVersionUID = 1L;
 
     /**
      * Constructs a new SiriException with a detailed message.
@@ -8,6 +8,7 @@ package siri.exceptions;
  * @see SiriException
  */
 public class TaskNotFoundException extends SiriException {
+    private static final long serialVersionUID = 1L;
 
     /**
      * Constructs a new TaskNotFoundException with a detailed message.
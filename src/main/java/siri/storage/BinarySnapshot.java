@@ -0,0 +1,219 @@
+package siri.storage;
+
+import siri.tasktypes.Deadline;
+import siri.tasktypes.Event;
+import siri.tasktypes.Task;
+import siri.tasktypes.ToDo;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and writes task snapshots in a compact binary format.
+ * <p>
+ * Unlike the text format, loading a binary snapshot needs no regular expressions or
+ * date parsing: dates are stored as minutes since the epoch and descriptions are stored
+ * with their length in front, so the file is decoded straight from a buffer read in one go.
+ * The buffer is not memory-mapped, since a mapping keeps the file open until it is garbage
+ * collected, which on Windows stops the snapshot from being replaced.
+ * </p>
+ * <p>
+ * The file starts with the magic bytes {@code SIRI}, a format version byte, the number
+ * of tasks and, from version 3, the highest ID any task has had as an 8-byte long.
+ * Each task is then stored as follows, where version 1 files have no task IDs:
+ * </p>
+ * <ul>
+ *     <li>a header byte holding the task type in the upper bits and the done flag in bit 0</li>
+ *     <li>the task ID as an 8-byte long, or 0 if the task has none</li>
+ *     <li>the description as a 4-byte length followed by its UTF-8 bytes</li>
+ *     <li>for deadlines, the due time in epoch minutes as an 8-byte long</li>
+ *     <li>for events, the start and end times in epoch minutes as two 8-byte longs</li>
+ * </ul>
+ *
+ * @see SnapshotFormat#BINARY
+ */
+class BinarySnapshot {
+    private static final int MAGIC = ('S' << 24) | ('I' << 16) | ('R' << 8) | 'I';
+    private static final byte VERSION = 3;
+    private static final byte VERSION_WITHOUT_HIGHEST_ID = 2;
+    private static final byte VERSION_WITHOUT_IDS = 1;
+    private static final int HEADER_BYTES = Integer.BYTES + 1 + Integer.BYTES;
+    private static final int TODO = 0;
+    private static final int DEADLINE = 1;
+    private static final int EVENT = 2;
+    private static final int MIN_RECORD_BYTES = 1 + Integer.BYTES;
+    private static final int NO_ID = 0;
+
+    /**
+     * Writes the tasks to the given file in the binary format, replacing its contents.
+     *
+     * @param path      the file to write.
+     * @param tasks     the tasks to write.
+     * @param highestId the highest ID any task has had, including tasks that were deleted.
+     * @throws IOException if an I/O error occurs during file writing.
+     */
+    static void write(Path path, List<Task> tasks, long highestId) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeInt(tasks.size());
+            out.writeLong(highestId);
+            for (Task task : tasks) {
+                assert task != null : "Task in list should not be null when saving";
+                writeTask(out, task);
+            }
+        }
+    }
+
+    private static void writeTask(DataOutputStream out, Task task) throws IOException {
+        int type = typeOf(task);
+        out.writeByte((type << 1) | (task.isDone() ? 1 : 0));
+        out.writeLong(task.getId());
+        byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+        out.writeInt(description.length);
+        out.write(description);
+        if (type == DEADLINE) {
+            out.writeLong(toEpochMinutes(((Deadline) task).getBy()));
+        } else if (type == EVENT) {
+            out.writeLong(toEpochMinutes(((Event) task).getFrom()));
+            out.writeLong(toEpochMinutes(((Event) task).getTo()));
+        }
+    }
+
+    private static int typeOf(Task task) {
+        if (task instanceof Deadline) {
+            return DEADLINE;
+        } else if (task instanceof Event) {
+            return EVENT;
+        }
+        assert task instanceof ToDo : "Unknown task type " + task.getClass();
+        return TODO;
+    }
+
+    /**
+     * Reads the tasks stored in the given binary snapshot.
+     *
+     * @param path the file to read.
+     * @return the tasks in the order they were written.
+     * @throws IOException if the file cannot be read or is not a valid binary snapshot.
+     */
+    static List<Task> read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = readFully(channel, path);
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+                throw new IOException("Unrecognised binary snapshot: " + path);
+            }
+            byte version = buffer.get();
+            if (version != VERSION && version != VERSION_WITHOUT_HIGHEST_ID && version != VERSION_WITHOUT_IDS) {
+                throw new IOException("Unrecognised binary snapshot: " + path);
+            }
+            int count = buffer.getInt();
+            if (version == VERSION) {
+                buffer.getLong();
+            }
+            if (count < 0 || count > buffer.remaining() / MIN_RECORD_BYTES) {
+                throw new IOException("Corrupted binary snapshot: " + path);
+            }
+            List<Task> tasks = new ArrayList<>(count);
+            byte[] scratch = new byte[64];
+            for (int i = 0; i < count; i++) {
+                int header = buffer.get();
+                long id = version != VERSION_WITHOUT_IDS ? buffer.getLong() : NO_ID;
+                int length = buffer.getInt();
+                if (id < 0 || length < 0 || length > buffer.remaining()) {
+                    throw new IOException("Corrupted binary snapshot: " + path);
+                }
+                if (length > scratch.length) {
+                    scratch = new byte[Math.max(length, scratch.length * 2)];
+                }
+                buffer.get(scratch, 0, length);
+                String description = Task.DESCRIPTIONS.intern(new String(scratch, 0, length, StandardCharsets.UTF_8));
+                Task task = createTask(header >> 1, description, buffer);
+                if ((header & 1) == 1) {
+                    task.markDone();
+                }
+                if (id != NO_ID) {
+                    task.setId(id);
+                }
+                tasks.add(task);
+            }
+            return tasks;
+        } catch (BufferUnderflowException | IllegalArgumentException | DateTimeException e) {
+            throw new IOException("Corrupted binary snapshot: " + path, e);
+        }
+    }
+
+    /**
+     * Reads the highest ID any task has had from the header of the given binary snapshot.
+     *
+     * @param path the file to read.
+     * @return the highest ID, or 0 if the snapshot was written before it was recorded.
+     * @throws IOException if the file cannot be read.
+     */
+    static long readHighestId(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES + Long.BYTES);
+            while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+                // Keep reading until the header is complete or the file ends.
+            }
+            header.flip();
+            boolean hasHighestId = header.remaining() == HEADER_BYTES + Long.BYTES
+                    && header.getInt(0) == MAGIC && header.get(Integer.BYTES) == VERSION;
+            return hasHighestId ? header.getLong(HEADER_BYTES) : 0;
+        }
+    }
+
+    /**
+     * Reads the whole file into a heap buffer, ready to be decoded from the start.
+     *
+     * @throws IOException if the file cannot be read or is too large for a single buffer.
+     */
+    private static ByteBuffer readFully(FileChannel channel, Path path) throws IOException {
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IOException("Binary snapshot is too large: " + path);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, buffer.position()) < 0) {
+                throw new IOException("Binary snapshot was truncated while reading: " + path);
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static Task createTask(int type, String description, ByteBuffer buffer) {
+        switch (type) {
+        case TODO:
+            return new ToDo(description);
+        case DEADLINE:
+            return new Deadline(description, fromEpochMinutes(buffer.getLong()));
+        case EVENT:
+            LocalDateTime from = fromEpochMinutes(buffer.getLong());
+            return new Event(description, from, fromEpochMinutes(buffer.getLong()));
+        default:
+            throw new IllegalArgumentException("Unknown task type " + type);
+        }
+    }
+
+    private static long toEpochMinutes(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private static LocalDateTime fromEpochMinutes(long minutes) {
+        return LocalDateTime.ofEpochSecond(minutes * 60, 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,13 @@
+package siri.storage;
+
+/**
+ * Represents how long a command waits for its changes to be written to disk.
+ *
+ * @see StorageOptions#setDurability(Durability)
+ */
+public enum Durability {
+    /** Every commit is written before the command finishes. */
+    SYNC,
+    /** Commits are queued and written in the background, at most the maximum flush delay later. */
+    ASYNC
+}
@@ -0,0 +1,366 @@
+package siri.storage;
+
+import siri.tasktypes.Task;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Append-only log of task list mutations that is kept next to the snapshot file.
+ * Every mutation is written as a single line, so recording a change costs the size
+ * of the change rather than the size of the whole task list.
+ *
+ * <p>Records are stored in the following formats:</p>
+ * <ul>
+ *     <li>{@code ADD | <task file string>}</li>
+ *     <li>{@code INSERT | <0-based index> | <task file string>}</li>
+ *     <li>{@code MARK | <0-based indices>}</li>
+ *     <li>{@code UNMARK | <0-based indices>}</li>
+ *     <li>{@code DELETE | <0-based indices>}</li>
+ * </ul>
+ *
+ * <p>Indices are written as a comma-separated list of single indices and inclusive ranges,
+ * such as {@code 4} or {@code 0-2,5}, so that a change to many tasks is still a single record.</p>
+ *
+ * @see Storage
+ * @see Task#toFileString()
+ */
+class Journal {
+    private static final String SEPARATOR = " | ";
+    private static final String ADD = "ADD";
+    private static final String INSERT = "INSERT";
+    private static final String MARK = "MARK";
+    private static final String UNMARK = "UNMARK";
+    private static final String DELETE = "DELETE";
+
+    private final Path path;
+    private BufferedWriter writer;
+    private long size;
+
+    /**
+     * The outcome of replaying a log. Replay stops at the first record that cannot be applied,
+     * since the positions in later records would then point at the wrong tasks.
+     */
+    static class Replay {
+        private final long highestId;
+        private final int corruptLine;
+
+        private Replay(long highestId, int corruptLine) {
+            this.highestId = highestId;
+            this.corruptLine = corruptLine;
+        }
+
+        /**
+         * Returns the highest ID of the tasks added by the applied records, or 0 if they add none.
+         */
+        long getHighestId() {
+            return highestId;
+        }
+
+        /**
+         * Returns the 1-based line number of the record that stopped the replay, or 0 if every record was applied.
+         */
+        int getCorruptLine() {
+            return corruptLine;
+        }
+
+        /**
+         * Returns whether every record in the log was applied.
+         */
+        boolean isComplete() {
+            return corruptLine == 0;
+        }
+    }
+
+    /**
+     * Constructs a Journal backed by the given log file.
+     * The file is only created once the first record is appended.
+     *
+     * @param path the location of the log file.
+     */
+    Journal(Path path) {
+        assert path != null : "Journal path should not be null";
+        this.path = path;
+    }
+
+    /**
+     * Returns the record describing a task being appended to the list.
+     *
+     * @param task the task that was added.
+     * @return the log record for the addition.
+     */
+    static String addRecord(Task task) {
+        return ADD + SEPARATOR + task.toFileString();
+    }
+
+    /**
+     * Returns the record describing a task being put back in the middle of the list.
+     *
+     * @param index the 0-based index the task was inserted at.
+     * @param task  the task that was inserted.
+     * @return the log record for the insertion.
+     */
+    static String insertRecord(int index, Task task) {
+        return INSERT + SEPARATOR + index + SEPARATOR + task.toFileString();
+    }
+
+    /**
+     * Returns the record describing a task being marked or unmarked.
+     *
+     * @param index  the 0-based index of the task.
+     * @param isDone {@code true} if the task was marked, {@code false} if unmarked.
+     * @return the log record for the status change.
+     */
+    static String markRecord(int index, boolean isDone) {
+        return (isDone ? MARK : UNMARK) + SEPARATOR + index;
+    }
+
+    /**
+     * Returns the record describing a task being removed from the list.
+     *
+     * @param index the 0-based index of the removed task.
+     * @return the log record for the removal.
+     */
+    static String deleteRecord(int index) {
+        return DELETE + SEPARATOR + index;
+    }
+
+    /**
+     * Returns the record describing several tasks being marked or unmarked at once.
+     *
+     * @param indices the 0-based indices of the tasks.
+     * @param isDone  {@code true} if the tasks were marked, {@code false} if unmarked.
+     * @return the log record for the status change.
+     */
+    static String markRecord(BitSet indices, boolean isDone) {
+        return (isDone ? MARK : UNMARK) + SEPARATOR + formatIndices(indices);
+    }
+
+    /**
+     * Returns the record describing several tasks being removed from the list at once.
+     *
+     * @param indices the 0-based indices the tasks had before they were removed.
+     * @return the log record for the removal.
+     */
+    static String deleteRecord(BitSet indices) {
+        return DELETE + SEPARATOR + formatIndices(indices);
+    }
+
+    private static String formatIndices(BitSet indices) {
+        assert !indices.isEmpty() : "Record should refer to at least one task";
+        StringBuilder formatted = new StringBuilder();
+        for (int start = indices.nextSetBit(0); start >= 0; start = indices.nextSetBit(start)) {
+            int end = indices.nextClearBit(start) - 1;
+            if (formatted.length() > 0) {
+                formatted.append(',');
+            }
+            formatted.append(start);
+            if (end > start) {
+                formatted.append('-').append(end);
+            }
+            start = end + 1;
+        }
+        return formatted.toString();
+    }
+
+    private static BitSet parseIndices(String payload) {
+        BitSet indices = new BitSet();
+        for (String item : payload.split(",")) {
+            int dash = item.indexOf('-');
+            if (dash < 0) {
+                indices.set(Integer.parseInt(item));
+            } else {
+                indices.set(Integer.parseInt(item.substring(0, dash)), Integer.parseInt(item.substring(dash + 1)) + 1);
+            }
+        }
+        return indices;
+    }
+
+    /**
+     * Appends the records to the end of the log and flushes them to the file.
+     *
+     * @param records the records to append, in the order they happened.
+     * @throws IOException if the log cannot be opened or written to.
+     */
+    void append(List<String> records) throws IOException {
+        if (writer == null) {
+            writer = Files.newBufferedWriter(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            size = Files.size(path);
+        }
+        for (String record : records) {
+            writer.write(record);
+            writer.newLine();
+            size += record.length() + 1;
+        }
+        writer.flush();
+    }
+
+    /**
+     * Returns the approximate size of the log file in bytes.
+     *
+     * @return the number of bytes appended to the log so far.
+     */
+    long size() {
+        return size;
+    }
+
+    /**
+     * Closes the log file. The next {@link #append(List)} reopens it, even if closing fails.
+     *
+     * @throws IOException if the log cannot be closed.
+     */
+    void close() throws IOException {
+        if (writer != null) {
+            try {
+                writer.close();
+            } finally {
+                writer = null;
+            }
+        }
+    }
+
+    /**
+     * Applies the records in the log file to the given tasks, in order, stopping at the first
+     * record that cannot be applied. A last line without a line break, which was only partially
+     * written before a crash, is skipped without stopping the replay.
+     *
+     * @param logPath the log file to replay. Nothing happens if it does not exist.
+     * @param tasks   the tasks loaded from the snapshot, updated in place.
+     * @return the highest ID of the tasks added by the applied records, including those they
+     *         delete again, and the line of the record that could not be applied, if any.
+     * @throws IOException if the log file cannot be read.
+     */
+    static Replay replay(Path logPath, List<Task> tasks) throws IOException {
+        long highestId = 0;
+        if (!Files.exists(logPath)) {
+            return new Replay(highestId, 0);
+        }
+        boolean isLastLineComplete = endsWithLineBreak(logPath);
+        try (BufferedReader bufferedReader = Files.newBufferedReader(logPath)) {
+            String line = bufferedReader.readLine();
+            int lineNumber = 1;
+            while (line != null) {
+                String nextLine = bufferedReader.readLine();
+                if (nextLine == null && !isLastLineComplete) {
+                    break;
+                }
+                try {
+                    highestId = Math.max(highestId, apply(line, tasks));
+                } catch (RuntimeException e) {
+                    return new Replay(highestId, lineNumber);
+                }
+                line = nextLine;
+                lineNumber++;
+            }
+        }
+        return new Replay(highestId, 0);
+    }
+
+    private static boolean endsWithLineBreak(Path logPath) throws IOException {
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.READ)) {
+            if (channel.size() == 0) {
+                return true;
+            }
+            ByteBuffer lastByte = ByteBuffer.allocate(1);
+            channel.read(lastByte, channel.size() - 1);
+            return lastByte.get(0) == '\n';
+        }
+    }
+
+    /**
+     * Applies a single log record to the given tasks.
+     *
+     * @param record the log record.
+     * @param tasks  the tasks to update.
+     * @return the ID of the task the record adds, or 0 if it adds none.
+     * @throws IllegalArgumentException if the record cannot be applied, in which case the tasks are unchanged.
+     * @throws IndexOutOfBoundsException if the record refers to a task that is not in the list.
+     */
+    private static long apply(String record, List<Task> tasks) {
+        int separator = record.indexOf(SEPARATOR);
+        if (separator < 0) {
+            throw new IllegalArgumentException("Record has no type: " + record);
+        }
+        String type = record.substring(0, separator);
+        String payload = record.substring(separator + SEPARATOR.length());
+
+        switch (type) {
+        case ADD:
+            Task task = Task.fromFileString(payload);
+            if (task == null) {
+                throw new IllegalArgumentException("Record has no task: " + record);
+            }
+            tasks.add(task);
+            return task.getId();
+        case INSERT:
+            int indexEnd = payload.indexOf(SEPARATOR);
+            int index = Integer.parseInt(payload.substring(0, indexEnd));
+            Task insertedTask = Task.fromFileString(payload.substring(indexEnd + SEPARATOR.length()));
+            if (insertedTask == null) {
+                throw new IllegalArgumentException("Record has no task: " + record);
+            }
+            tasks.add(index, insertedTask);
+            return insertedTask.getId();
+        case MARK:
+        case UNMARK:
+            BitSet indices = parseIndices(payload);
+            checkIndices(tasks, indices);
+            for (int i = indices.nextSetBit(0); i >= 0; i = indices.nextSetBit(i + 1)) {
+                if (type.equals(MARK)) {
+                    tasks.get(i).markDone();
+                } else {
+                    tasks.get(i).markUndone();
+                }
+            }
+            break;
+        case DELETE:
+            removeAll(tasks, parseIndices(payload));
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown record type: " + type);
+        }
+        return 0;
+    }
+
+    /**
+     * Removes the tasks at the given indices in a single pass over the list.
+     *
+     * @throws IndexOutOfBoundsException if an index is not in the list, in which case nothing is removed.
+     */
+    private static void removeAll(List<Task> tasks, BitSet indices) {
+        checkIndices(tasks, indices);
+        if (indices.cardinality() == 1) {
+            tasks.remove(indices.nextSetBit(0));
+            return;
+        }
+        List<Task> kept = new ArrayList<>(tasks.size() - indices.cardinality());
+        int index = 0;
+        for (Task task : tasks) {
+            if (!indices.get(index++)) {
+                kept.add(task);
+            }
+        }
+        tasks.clear();
+        tasks.addAll(kept);
+    }
+
+    /**
+     * Checks that every index refers to a task, so that a record is applied either fully or not at all.
+     *
+     * @throws IndexOutOfBoundsException if an index is not in the list.
+     */
+    private static void checkIndices(List<Task> tasks, BitSet indices) {
+        if (indices.length() > tasks.size()) {
+            throw new IndexOutOfBoundsException("Task index " + (indices.length() - 1) + " is not in the list");
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package siri.storage;
+
+import siri.tasktypes.Task;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Loads large text snapshots by parsing several parts of the file at the same time.
+ * <p>
+ * The file is split into byte ranges that each start right after a line break, so that
+ * no line is cut in half. Every range is read and parsed on the common fork-join pool,
+ * and the parsed ranges are joined back together in file order. Each range is streamed
+ * through a small buffer instead of being memory-mapped, so nothing holds on to the file
+ * once loading returns and a later snapshot can replace it.
+ * </p>
+ *
+ * @see Storage#load()
+ * @see Task#fromFileString(String)
+ */
+class ParallelTextLoader {
+    private static final int MIN_CHUNK_BYTES = 256 * 1024;
+    private static final int MAX_CHUNK_BYTES = 1 << 30;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int BOUNDARY_SCAN_BYTES = 8 * 1024;
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+
+    /**
+     * Reads tasks from a text file with one task on each line.
+     *
+     * @param path the text file to read.
+     * @return the tasks in the file, in file order.
+     * @throws IOException if an I/O error occurs during file reading.
+     */
+    static List<Task> read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long[] boundaries = findChunkBoundaries(channel);
+            List<ChunkParser> parsers = new ArrayList<>();
+            for (int i = 0; i + 1 < boundaries.length; i++) {
+                parsers.add(new ChunkParser(channel, boundaries[i], boundaries[i + 1]));
+            }
+
+            for (ChunkParser parser : parsers) {
+                parser.fork();
+            }
+            List<Task> tasks = new ArrayList<>();
+            for (ChunkParser parser : parsers) {
+                tasks.addAll(parser.join());
+            }
+            return tasks;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Splits the file into roughly equal ranges, moving every split point to just after
+     * the next line break.
+     *
+     * @return the start of every range followed by the size of the file.
+     */
+    private static long[] findChunkBoundaries(FileChannel channel) throws IOException {
+        long size = channel.size();
+        int threads = ForkJoinPool.commonPool().getParallelism();
+        long chunkCount = Math.max(1, Math.min((long) threads * CHUNKS_PER_THREAD, size / MIN_CHUNK_BYTES));
+        chunkCount = Math.max(chunkCount, size / MAX_CHUNK_BYTES + 1);
+
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+        for (long i = 1; i < chunkCount; i++) {
+            long boundary = nextLineStart(channel, size * i / chunkCount);
+            if (boundary > boundaries.get(boundaries.size() - 1) && boundary < size) {
+                boundaries.add(boundary);
+            }
+        }
+        boundaries.add(size);
+
+        long[] result = new long[boundaries.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = boundaries.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the position right after the first line break at or after the given position,
+     * or the size of the file if there is none.
+     */
+    private static long nextLineStart(FileChannel channel, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BOUNDARY_SCAN_BYTES);
+        while (true) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * Parses the lines of one range of the file into tasks.
+     */
+    private static class ChunkParser extends RecursiveTask<List<Task>> {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+
+        private ChunkParser(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected List<Task> compute() {
+            List<Task> tasks = new ArrayList<>();
+            ByteBuffer chunk = ByteBuffer.allocate((int) Math.min(READ_BUFFER_BYTES, end - start)).limit(0);
+            long position = start;
+            byte[] line = new byte[256];
+            int length = 0;
+            while (position < end || chunk.hasRemaining()) {
+                if (!chunk.hasRemaining()) {
+                    position += readNext(chunk, position);
+                    continue;
+                }
+                byte b = chunk.get();
+                if (b == '\n') {
+                    addTask(tasks, line, length);
+                    length = 0;
+                    continue;
+                }
+                if (length == line.length) {
+                    byte[] grown = new byte[line.length * 2];
+                    System.arraycopy(line, 0, grown, 0, length);
+                    line = grown;
+                }
+                line[length++] = b;
+            }
+            if (length > 0) {
+                addTask(tasks, line, length);
+            }
+            return tasks;
+        }
+
+        /**
+         * Refills the buffer with the bytes of the range from the given position onwards.
+         *
+         * @return the number of bytes read.
+         * @throws UncheckedIOException if the file cannot be read or ends before the range does.
+         */
+        private int readNext(ByteBuffer chunk, long position) {
+            chunk.clear();
+            chunk.limit((int) Math.min(chunk.capacity(), end - position));
+            try {
+                int read = channel.read(chunk, position);
+                if (read < 0) {
+                    throw new IOException("Task file was truncated while reading");
+                }
+                chunk.flip();
+                return read;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static void addTask(List<Task> tasks, byte[] line, int length) {
+            if (length > 0 && line[length - 1] == '\r') {
+                length--;
+            }
+            Task task = Task.fromFileString(new String(line, 0, length, StandardCharsets.UTF_8));
+            if (task != null) {
+                tasks.add(task);
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package siri.storage;
+
+/**
+ * Represents the file formats a task snapshot can be stored in.
+ *
+ * @see StorageOptions#setFormat(SnapshotFormat)
+ */
+public enum SnapshotFormat {
+    /** One human-readable line per task, such as {@code T | 0 | read a book}, in {@code siri.txt}. */
+    TEXT,
+    /** A compact binary encoding in {@code siri.bin}, read in a single pass. */
+    BINARY
+}
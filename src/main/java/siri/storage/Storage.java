@@ -1,16 +1,26 @@
 package siri.storage;
 
 import siri.tasktypes.Task;
+import siri.util.Metrics;
 
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * Saves the tasks in the hard disk automatically whenever the tasks are created
@@ -18,28 +28,182 @@ import java.util.List;
  * The storage system ensures that task data persists between application sessions,
  * providing a seamless user experience across multiple runs of the application.
  *
+ * <p>In journaled mode, changes are appended to a log file next to the snapshot
+ * ({@code siri.txt.log}) instead of rewriting the whole snapshot. Once the log grows past
+ * the compaction threshold, it is folded into a fresh snapshot on a background thread.</p>
+ *
+ * <p>A snapshot is replaced by first retiring the current log to {@code siri.txt.log.old},
+ * then writing {@code siri.txt.tmp}, deleting the retired log and finally moving the
+ * temporary file over the snapshot. If Siri stops half way, {@link #load()} can tell
+ * from the files left behind whether the new snapshot is complete.</p>
+ *
+ * <p>Records refer to tasks by their position, so replaying a log stops at the first record
+ * that cannot be applied. The logs are then copied to {@code .corrupt} files for inspection,
+ * and the next commit writes a new snapshot of the tasks as they were before that record.</p>
+ *
+ * <p>The snapshot is either the text file itself or, in the {@link SnapshotFormat#BINARY}
+ * format, a {@code .bin} file next to it. Each snapshot has its own log, such as
+ * {@code siri.bin.log}, since the records refer to tasks by their position in that snapshot.
+ * An existing text file and its log are migrated to the binary format the first time they
+ * are loaded in that format, and are left in place as a backup.</p>
+ *
+ * <p>The storage keeps track of the highest ID any task has had, so that the IDs of deleted tasks
+ * are never given out again after a restart. When that ID belongs to a task that was deleted,
+ * the text snapshot starts with a line such as {@code ID | 42} holding it, and the binary
+ * snapshot always records it in its header.</p>
+ *
+ * <p>With {@link Durability#ASYNC} durability, {@link #commit(List)} only queues the changes.
+ * A background writer persists everything queued within the maximum flush delay in a single
+ * write, so commands never wait for the disk. {@link #flush()} and {@link #close()} write any
+ * queued changes straight away.</p>
+ *
+ * <p>Changes that fail to be written stay queued. Since a failed append may have left part of a
+ * record in the log, the next commit then writes a whole new snapshot instead of appending.</p>
+ *
  * @see Task
+ * @see Journal
  * @see #load()
+ * @see #commit(List)
  * @see #save(List)
  */
 public class Storage {
+    private static final String HIGHEST_ID_PREFIX = "ID | ";
+
     private Path filePath;
+    private final Path snapshotPath;
+    private final Path journalPath;
+    private final Path retiredJournalPath;
+    private final Path tempPath;
+    private final SnapshotFormat format;
+    private final boolean isJournaled;
+    private final long compactionThreshold;
+    private final long parallelLoadThreshold;
+    private final Durability durability;
+    private final long maxFlushDelayMillis;
+    private final Journal journal;
+    private final Metrics metrics;
+    private final ScheduledExecutorService flusher;
+    private final ScheduledExecutorService compactor;
+
+    /** Guards the files on disk. Held while writing, and always acquired before {@code this}. */
+    private final Object ioLock = new Object();
+    private Future<?> compaction;
+
+    /** Changes recorded by the current command. Guarded by {@code this}. */
+    private final List<String> pendingRecords = new ArrayList<>();
+    /** Committed changes waiting to be written. Guarded by {@code this}. */
+    private final List<Batch> unflushedBatches = new ArrayList<>();
+    private long loggedBytes;
+    private boolean isFlushScheduled;
+    private IOException flushFailure;
+    /** Whether a write failed since the last snapshot, so that the log can no longer be trusted. */
+    private boolean isSnapshotRequired;
+    /** The highest ID any task has had, including deleted tasks. Guarded by {@code this}. */
+    private long highestId;
+    /** The log whose replay stopped early during the last load, or {@code null}. Guarded by {@code this}. */
+    private Path corruptLog;
+    private int corruptLine;
+
+    /**
+     * The changes committed by one call to {@link #commit(List)}.
+     * The snapshot is the task list to write as a new snapshot after the changes,
+     * or {@code null} if the changes only need to be logged. A full batch must be written
+     * as a snapshot, replacing the log and every batch before it.
+     */
+    private static class Batch {
+        private final List<String> records;
+        private final List<Task> snapshot;
+        private final boolean isFull;
+
+        private Batch(List<String> records, List<Task> snapshot, boolean isFull) {
+            this.records = records;
+            this.snapshot = snapshot;
+            this.isFull = isFull;
+        }
+    }
 
     /**
-     * Constructs a new Storage instance with the specified file path.
+     * Constructs a new journaled Storage instance with the specified file path.
      * The path should point to the location where task data will be stored and loaded from.
      *
      * @param path the file system path where task data will be persisted.
      *             This can be a relative or absolute path to the data file.
      */
     public Storage(String path) {
+        this(path, StorageOptions.defaults());
+    }
+
+    /**
+     * Constructs a new Storage instance with the specified file path and options.
+     *
+     * @param path    the file system path of the text data file. Other storage files,
+     *                such as the log and the binary snapshot, are kept next to it.
+     * @param options the settings controlling how tasks are persisted.
+     */
+    public Storage(String path, StorageOptions options) {
+        this(path, options, new Metrics());
+    }
+
+    /**
+     * Constructs a new Storage instance that records its load and write times in the given metrics.
+     *
+     * @param path    the file system path of the text data file.
+     * @param options the settings controlling how tasks are persisted.
+     * @param metrics where the time taken and the tasks loaded and bytes written are recorded.
+     */
+    public Storage(String path, StorageOptions options, Metrics metrics) {
         assert path != null : "Path passed to Storage constructor should not be null";
+        assert options != null : "Storage options should not be null";
+        assert metrics != null : "Metrics should not be null";
+        this.metrics = metrics;
         this.filePath = Paths.get(path);
+        this.format = options.getFormat();
+        this.snapshotPath = format == SnapshotFormat.BINARY ? binaryPathOf(filePath) : filePath;
+        this.journalPath = siblingOf(snapshotPath, ".log");
+        this.retiredJournalPath = siblingOf(snapshotPath, ".log.old");
+        this.tempPath = siblingOf(snapshotPath, ".tmp");
+        this.isJournaled = options.isJournaled();
+        this.compactionThreshold = options.getCompactionThreshold();
+        this.parallelLoadThreshold = options.getParallelLoadThreshold();
+        this.durability = options.getDurability();
+        this.maxFlushDelayMillis = options.getMaxFlushDelayMillis();
+        this.journal = new Journal(journalPath);
+        this.flusher = newBackgroundThread("siri-flusher");
+        this.compactor = newBackgroundThread("siri-compactor");
         assert filePath != null : "filePath should not be null after initialisation";
     }
 
     /**
-     * Loads tasks from the storage file.
+     * Returns an executor running on a single daemon thread, so that it never keeps Siri open.
+     * The thread is only started once the first task is submitted.
+     */
+    private static ScheduledExecutorService newBackgroundThread(String name) {
+        return Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the path of a file that sits next to the given file and shares its name.
+     */
+    private static Path siblingOf(Path path, String suffix) {
+        return path.resolveSibling(path.getFileName() + suffix);
+    }
+
+    /**
+     * Returns the path of the binary snapshot kept next to the given text file,
+     * such as {@code siri.bin} for {@code siri.txt}.
+     */
+    private static Path binaryPathOf(Path textPath) {
+        String name = textPath.getFileName().toString();
+        int extension = name.lastIndexOf('.');
+        return textPath.resolveSibling((extension > 0 ? name.substring(0, extension) : name) + ".bin");
+    }
+
+    /**
+     * Loads tasks from the storage file and replays any logged changes on top of them.
      * If the file does not exist, creates the necessary directories and file first.
      *
      * @return a List of Task objects loaded from the storage file.
@@ -49,15 +213,114 @@ public class Storage {
      * @see Task#fromFileString(String)
      */
     public List<Task> load() throws IOException {
-        List<Task> tasks = new ArrayList<>();
-        assert tasks != null : "Tasks list should be initialized";
-        if (!Files.exists(filePath)) {
-            Files.createDirectories(filePath.getParent());
-            Files.createFile(filePath);
+        synchronized (ioLock) {
+            long start = System.nanoTime();
+            recoverInterruptedSnapshot(snapshotPath);
+            boolean isMigrating = format == SnapshotFormat.BINARY
+                    && !Files.exists(snapshotPath) && Files.exists(filePath);
+            List<Task> tasks;
+            long highest = 0;
+            if (format == SnapshotFormat.BINARY && Files.exists(snapshotPath)) {
+                tasks = BinarySnapshot.read(snapshotPath);
+                highest = BinarySnapshot.readHighestId(snapshotPath);
+            } else if (isMigrating) {
+                recoverInterruptedSnapshot(filePath);
+                tasks = readText(filePath);
+                highest = readHighestId(filePath);
+            } else if (Files.exists(filePath)) {
+                tasks = readText(filePath);
+                highest = readHighestId(filePath);
+            } else {
+                tasks = new ArrayList<>();
+                if (format == SnapshotFormat.TEXT) {
+                    Files.createDirectories(filePath.getParent());
+                    Files.createFile(filePath);
+                }
+            }
+            assert tasks != null : "Tasks list should be initialized";
+
+            Path logSnapshotPath = isMigrating ? filePath : snapshotPath;
+            Path stoppedLog = null;
+            int stoppedLine = 0;
+            for (Path log : List.of(siblingOf(logSnapshotPath, ".log.old"), siblingOf(logSnapshotPath, ".log"))) {
+                Journal.Replay replay = Journal.replay(log, tasks);
+                highest = Math.max(highest, replay.getHighestId());
+                if (!replay.isComplete()) {
+                    stoppedLog = log;
+                    stoppedLine = replay.getCorruptLine();
+                    keepCorruptLogs(logSnapshotPath);
+                    break;
+                }
+            }
+            for (Task task : tasks) {
+                highest = Math.max(highest, task.getId());
+            }
+            synchronized (this) {
+                loggedBytes = Files.exists(journalPath) ? Files.size(journalPath) : 0;
+                highestId = highest;
+                corruptLog = stoppedLog;
+                corruptLine = stoppedLine;
+                if (stoppedLog != null) {
+                    isSnapshotRequired = true;
+                }
+            }
+            metrics.recordLoad(System.nanoTime() - start, tasks.size());
+            if (isMigrating) {
+                save(tasks);
+            }
+            assert tasks != null : "Tasks list should not be null after loading";
             return tasks;
         }
+    }
 
-        try (BufferedReader bufferedReader = Files.newBufferedReader(filePath)) {
+    /**
+     * Copies the logs of the given snapshot to {@code .corrupt} files next to them, such as
+     * {@code siri.txt.log.corrupt}, so that they can still be inspected once the next snapshot
+     * replaces them.
+     */
+    private static void keepCorruptLogs(Path snapshot) throws IOException {
+        for (Path log : List.of(siblingOf(snapshot, ".log.old"), siblingOf(snapshot, ".log"))) {
+            if (Files.exists(log)) {
+                Files.copy(log, siblingOf(log, ".corrupt"), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    /**
+     * Returns the log whose replay stopped at a record that could not be applied during the last
+     * {@link #load()}, or {@code null} if every record was applied. The tasks loaded then only have
+     * the changes before that record, and the next commit writes them as a new snapshot.
+     *
+     * @return the path of the log, or {@code null} if the logs were replayed fully.
+     * @see #getCorruptLine()
+     */
+    public synchronized Path getCorruptLog() {
+        return corruptLog;
+    }
+
+    /**
+     * Returns the 1-based line of the record that could not be applied in {@link #getCorruptLog()}.
+     *
+     * @return the line number, or 0 if the logs were replayed fully.
+     */
+    public synchronized int getCorruptLine() {
+        return corruptLine;
+    }
+
+    /**
+     * Reads tasks from a text file with one task on each line.
+     * Files of at least the parallel load threshold are parsed on several threads.
+     *
+     * @param path the text file to read.
+     * @return the tasks in the file.
+     * @throws IOException if an I/O error occurs during file reading.
+     */
+    private List<Task> readText(Path path) throws IOException {
+        if (Files.size(path) >= parallelLoadThreshold) {
+            return ParallelTextLoader.read(path);
+        }
+        List<Task> tasks = new ArrayList<>();
+        try (BufferedReader bufferedReader = Files.newBufferedReader(path)) {
             String line;
             while ((line = bufferedReader.readLine()) != null) {
                 Task task = Task.fromFileString(line);
@@ -66,14 +329,320 @@ public class Storage {
                 }
             }
         }
-        assert tasks != null : "Tasks list should not be null after loading";
         return tasks;
     }
 
+    /**
+     * Reads the highest ID any task has had from the first line of a text snapshot.
+     *
+     * @param path the text file to read.
+     * @return the highest ID, or 0 if the file does not start with one.
+     * @throws IOException if the file cannot be read.
+     */
+    private static long readHighestId(Path path) throws IOException {
+        try (BufferedReader bufferedReader = Files.newBufferedReader(path)) {
+            String line = bufferedReader.readLine();
+            if (line == null || !line.startsWith(HIGHEST_ID_PREFIX)) {
+                return 0;
+            }
+            try {
+                return Long.parseLong(line.substring(HIGHEST_ID_PREFIX.length()).trim());
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Returns the highest ID any task has had, including tasks that have since been deleted.
+     * New tasks should get higher IDs, so that an ID always refers to the same task.
+     *
+     * @return the highest ID, or 0 if no task has had one.
+     */
+    public synchronized long getHighestId() {
+        return highestId;
+    }
+
+    /**
+     * Finishes or discards a replacement of the given snapshot that was interrupted.
+     * A temporary snapshot is only complete once the retired log of the snapshot has been deleted.
+     *
+     * @param snapshot the snapshot whose leftover files are checked.
+     * @throws IOException if the leftover files cannot be moved or deleted.
+     */
+    private static void recoverInterruptedSnapshot(Path snapshot) throws IOException {
+        Path temp = siblingOf(snapshot, ".tmp");
+        if (Files.exists(siblingOf(snapshot, ".log.old"))) {
+            Files.deleteIfExists(temp);
+        } else if (Files.exists(temp)) {
+            Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    /**
+     * Records that a task was appended to the end of the task list.
+     *
+     * @param task the task that was added.
+     */
+    public synchronized void recordAdd(Task task) {
+        assert task != null : "Added task should not be null";
+        highestId = Math.max(highestId, task.getId());
+        pendingRecords.add(Journal.addRecord(task));
+    }
+
+    /**
+     * Records that a task was put back at the given position, such as when a deletion is undone.
+     *
+     * @param index the 0-based index the task was inserted at.
+     * @param task  the task that was inserted.
+     */
+    public synchronized void recordInsert(int index, Task task) {
+        assert index >= 0 : "Inserted task index should not be negative";
+        assert task != null : "Inserted task should not be null";
+        highestId = Math.max(highestId, task.getId());
+        pendingRecords.add(Journal.insertRecord(index, task));
+    }
+
+    /**
+     * Records that a task was marked or unmarked.
+     *
+     * @param index  the 0-based index of the task.
+     * @param isDone {@code true} if the task was marked as done, {@code false} otherwise.
+     */
+    public synchronized void recordMark(int index, boolean isDone) {
+        assert index >= 0 : "Marked task index should not be negative";
+        pendingRecords.add(Journal.markRecord(index, isDone));
+    }
+
+    /**
+     * Records that several tasks were marked or unmarked by one command.
+     *
+     * @param indices the 0-based indices of the tasks that changed.
+     * @param isDone  {@code true} if the tasks were marked as done, {@code false} otherwise.
+     */
+    public synchronized void recordMarkAll(BitSet indices, boolean isDone) {
+        assert !indices.isEmpty() : "At least one task should have been marked";
+        pendingRecords.add(Journal.markRecord(indices, isDone));
+    }
+
+    /**
+     * Records that several tasks were removed from the task list by one command.
+     *
+     * @param indices the 0-based indices the tasks had before they were removed.
+     */
+    public synchronized void recordDeleteAll(BitSet indices) {
+        assert !indices.isEmpty() : "At least one task should have been deleted";
+        pendingRecords.add(Journal.deleteRecord(indices));
+    }
+
+    /**
+     * Records that a task was removed from the task list.
+     *
+     * @param index the 0-based index the task had before it was removed.
+     */
+    public synchronized void recordDelete(int index) {
+        assert index >= 0 : "Deleted task index should not be negative";
+        pendingRecords.add(Journal.deleteRecord(index));
+    }
+
+    /**
+     * Persists the changes recorded since the last commit.
+     * In journaled mode only the recorded changes are appended to the log, and the log is
+     * compacted in the background once it passes the compaction threshold.
+     * Otherwise, the whole task list is saved.
+     * Nothing is written if no change was recorded, such as after {@code list} or {@code find}.
+     * With {@link Durability#ASYNC} durability, the changes are written by the background
+     * writer instead, and this method returns without waiting for the disk.
+     * After a failed write, the whole task list is saved instead, even if nothing changed.
+     *
+     * @param tasks the current list of tasks, used when a new snapshot has to be written.
+     * @throws IOException if an I/O error occurs while writing, or if a background write
+     *         since the last commit failed. The changes stay queued either way.
+     */
+    public void commit(List<Task> tasks) throws IOException {
+        assert tasks != null : "Task list passed to commit() should not be null";
+        commit(() -> tasks);
+    }
+
+    /**
+     * Persists the changes recorded since the last commit, as {@link #commit(List)} does,
+     * only asking for the task list when a new snapshot has to be written. Most commits
+     * in journaled mode only append to the log, so a list that is expensive to hand out,
+     * such as a copy of a shared list, is then never built.
+     *
+     * @param tasks supplies the current list of tasks when a new snapshot has to be written.
+     * @throws IOException if an I/O error occurs while writing, or if a background write
+     *         since the last commit failed. The changes stay queued either way.
+     */
+    public void commit(Supplier<List<Task>> tasks) throws IOException {
+        assert tasks != null : "Task list passed to commit() should not be null";
+        synchronized (this) {
+            if (pendingRecords.isEmpty() && !isSnapshotRequired) {
+                throwFlushFailure();
+                return;
+            }
+            boolean isAsync = durability == Durability.ASYNC;
+            List<Task> snapshot = null;
+            if (!isJournaled) {
+                snapshot = isAsync ? new ArrayList<>(tasks.get()) : tasks.get();
+            } else if (isSnapshotRequired) {
+                snapshot = new ArrayList<>(tasks.get());
+                loggedBytes = 0;
+            } else {
+                for (String record : pendingRecords) {
+                    loggedBytes += record.length() + 1;
+                }
+                if (loggedBytes >= compactionThreshold) {
+                    snapshot = new ArrayList<>(tasks.get());
+                    loggedBytes = 0;
+                }
+            }
+            unflushedBatches.add(new Batch(new ArrayList<>(pendingRecords), snapshot, isSnapshotRequired));
+            pendingRecords.clear();
+            if (isAsync) {
+                scheduleFlush();
+                throwFlushFailure();
+                return;
+            }
+        }
+        flush();
+        throwFlushFailure();
+    }
+
+    /**
+     * Asks the background writer to write the queued changes once the maximum delay has passed.
+     * Changes committed in the meantime are written together with them.
+     */
+    private synchronized void scheduleFlush() {
+        if (isFlushScheduled) {
+            return;
+        }
+        isFlushScheduled = true;
+        flusher.schedule(() -> {
+            try {
+                flush();
+            } catch (IOException e) {
+                synchronized (this) {
+                    flushFailure = e;
+                }
+            }
+        }, maxFlushDelayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Rethrows the failure of the last background write, so that it is reported to the user.
+     */
+    private synchronized void throwFlushFailure() throws IOException {
+        if (flushFailure != null) {
+            IOException failure = flushFailure;
+            flushFailure = null;
+            throw failure;
+        }
+    }
+
+    /**
+     * Writes all committed changes that have not been written yet.
+     * Consecutive changes are appended to the log in a single write.
+     * If the write fails, the changes that were not written are queued again.
+     *
+     * @throws IOException if an I/O error occurs while writing, or if changes made since an earlier
+     *         failure can only be saved by committing the whole task list.
+     */
+    public void flush() throws IOException {
+        synchronized (ioLock) {
+            List<Batch> batches;
+            synchronized (this) {
+                batches = new ArrayList<>(unflushedBatches);
+                unflushedBatches.clear();
+                isFlushScheduled = false;
+            }
+            if (batches.isEmpty()) {
+                return;
+            }
+            try {
+                writeBatches(batches);
+            } catch (IOException e) {
+                synchronized (this) {
+                    unflushedBatches.addAll(0, batches);
+                    isSnapshotRequired = true;
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Writes the batches in order, removing each one from the list once it has been written,
+     * so that a failure leaves only the batches still to be written in the list.
+     */
+    private void writeBatches(List<Batch> batches) throws IOException {
+        int lastFull = -1;
+        for (int i = 0; i < batches.size(); i++) {
+            if (!isJournaled || batches.get(i).isFull) {
+                lastFull = i;
+            }
+        }
+        if (lastFull >= 0) {
+            awaitCompaction();
+            retireJournal();
+            replaceSnapshot(batches.get(lastFull).snapshot);
+            batches.subList(0, lastFull + 1).clear();
+            synchronized (this) {
+                isSnapshotRequired = false;
+            }
+        } else if (isSnapshotRequired()) {
+            throw new IOException("Some changes could not be saved, so the whole task list has to be saved again");
+        }
+
+        List<String> records = new ArrayList<>();
+        int count = 0;
+        while (count < batches.size()) {
+            Batch batch = batches.get(count++);
+            records.addAll(batch.records);
+            if (batch.snapshot == null) {
+                continue;
+            }
+            if (isCompacting()) {
+                synchronized (this) {
+                    loggedBytes = Math.max(loggedBytes, compactionThreshold);
+                }
+                continue;
+            }
+            appendToJournal(records);
+            records.clear();
+            batches.subList(0, count).clear();
+            count = 0;
+            startCompaction(batch.snapshot);
+        }
+        if (!records.isEmpty()) {
+            appendToJournal(records);
+        }
+        batches.clear();
+    }
+
+    private synchronized boolean isSnapshotRequired() {
+        return isSnapshotRequired;
+    }
+
+    /**
+     * Appends the records to the log, recording the time taken and the bytes written.
+     * Like the size kept by the log, the byte count assumes single-byte characters and line breaks.
+     */
+    private void appendToJournal(List<String> records) throws IOException {
+        long start = System.nanoTime();
+        journal.append(records);
+        long bytes = 0;
+        for (String record : records) {
+            bytes += record.length() + 1;
+        }
+        metrics.recordLogWrite(System.nanoTime() - start, bytes);
+    }
+
     /**
      * Saves the current list of tasks to the storage file.
      * Each task is converted to a different representation.
      * It is then written to the file, with each task on a separate line.
+     * Any logged or queued changes are discarded, since the new snapshot already contains them.
      *
      * @param tasks the list of Task objects to be persisted to disk.
      * @throws IOException if an I/O error occurs during file writing,
@@ -81,7 +650,183 @@ public class Storage {
      */
     public void save(List<Task> tasks) throws IOException {
         assert tasks != null : "Task list passed to save() should not be null";
-        try (BufferedWriter bufferedWriter = new BufferedWriter(new FileWriter(filePath.toFile()))) {
+        synchronized (ioLock) {
+            synchronized (this) {
+                pendingRecords.clear();
+                unflushedBatches.clear();
+                loggedBytes = 0;
+            }
+            awaitCompaction();
+            retireJournal();
+            replaceSnapshot(tasks);
+            synchronized (this) {
+                isSnapshotRequired = false;
+            }
+        }
+    }
+
+    /**
+     * Saves the tasks and writes a copy of them in the text format to the given file.
+     * This allows tasks kept in the binary format to be read, edited or used in text mode again.
+     * When the copy replaces the text data file, the log of that file is discarded,
+     * since the copy already contains its changes.
+     *
+     * @param tasks  the current list of tasks.
+     * @param target the text file to write, or {@code null} for the text data file.
+     * @return the path of the text file that was written.
+     * @throws IOException if an I/O error occurs during file writing.
+     */
+    public Path exportText(List<Task> tasks, String target) throws IOException {
+        synchronized (ioLock) {
+            save(tasks);
+            Path targetPath = target == null ? filePath : Paths.get(target);
+            if (!targetPath.toAbsolutePath().normalize().equals(snapshotPath.toAbsolutePath().normalize())) {
+                Path exportTempPath = siblingOf(targetPath, ".tmp");
+                writeText(exportTempPath, tasks, getHighestId());
+                if (targetPath.toAbsolutePath().normalize().equals(filePath.toAbsolutePath().normalize())) {
+                    Files.deleteIfExists(siblingOf(filePath, ".log.old"));
+                    Files.deleteIfExists(siblingOf(filePath, ".log"));
+                }
+                Files.move(exportTempPath, targetPath, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            }
+            return targetPath;
+        }
+    }
+
+    /**
+     * Writes any queued changes, waits for any background compaction to finish and closes the log file.
+     * The storage can still be used afterwards; the log is reopened on the next commit.
+     *
+     * @throws IOException if a write or the compaction failed, or the log cannot be closed.
+     */
+    public void close() throws IOException {
+        flush();
+        throwFlushFailure();
+        synchronized (ioLock) {
+            awaitCompaction();
+            journal.close();
+        }
+    }
+
+    /**
+     * Returns whether a background compaction is still running.
+     */
+    private boolean isCompacting() {
+        return compaction != null && !compaction.isDone();
+    }
+
+    /**
+     * Retires the current log and writes a new snapshot of the tasks in the background.
+     *
+     * @param snapshot a copy of the task list, so that later commands do not change the snapshot
+     *                 being written.
+     * @throws IOException if the log cannot be retired.
+     */
+    private void startCompaction(List<Task> snapshot) throws IOException {
+        retireJournal();
+        compaction = compactor.submit(() -> {
+            replaceSnapshot(snapshot);
+            return null;
+        });
+    }
+
+    /**
+     * Blocks until the running background compaction, if any, has finished.
+     *
+     * @throws IOException if the compaction failed.
+     */
+    private void awaitCompaction() throws IOException {
+        if (compaction == null) {
+            return;
+        }
+        try {
+            compaction.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while saving tasks", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Could not compact the task log", e.getCause());
+        } finally {
+            compaction = null;
+        }
+    }
+
+    /**
+     * Moves the current log aside so that new changes start a fresh log.
+     * If an earlier compaction failed, the current log is added to the end of the retired log
+     * instead, so that no change is lost. A retired log always exists afterwards, marking the
+     * snapshot on disk as not yet replaced.
+     *
+     * @throws IOException if the log files cannot be moved or written.
+     */
+    private void retireJournal() throws IOException {
+        journal.close();
+        if (!Files.exists(journalPath)) {
+            if (!Files.exists(retiredJournalPath)) {
+                Files.createDirectories(filePath.toAbsolutePath().getParent());
+                Files.createFile(retiredJournalPath);
+            }
+            return;
+        }
+        if (Files.exists(retiredJournalPath)) {
+            Files.write(retiredJournalPath, Files.readAllBytes(journalPath), StandardOpenOption.APPEND);
+            Files.delete(journalPath);
+        } else {
+            Files.move(journalPath, retiredJournalPath, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    /**
+     * Writes the tasks to a temporary file and moves it over the snapshot.
+     * The retired log is deleted only after the temporary file is fully on disk,
+     * which marks the temporary file as complete for {@link #recoverInterruptedSnapshot()}.
+     *
+     * @param tasks the tasks to write.
+     * @throws IOException if an I/O error occurs during file writing.
+     */
+    private void replaceSnapshot(List<Task> tasks) throws IOException {
+        long start = System.nanoTime();
+        long highest = getHighestId();
+        for (Task task : tasks) {
+            highest = Math.max(highest, task.getId());
+        }
+        synchronized (this) {
+            highestId = Math.max(highestId, highest);
+        }
+        if (format == SnapshotFormat.BINARY) {
+            BinarySnapshot.write(tempPath, tasks, highest);
+        } else {
+            writeText(tempPath, tasks, highest);
+        }
+        try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        long bytes = Files.size(tempPath);
+        Files.delete(retiredJournalPath);
+        Files.move(tempPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        metrics.recordSnapshotWrite(System.nanoTime() - start, bytes);
+    }
+
+    /**
+     * Writes the tasks to a text file, with each task on a separate line.
+     * The highest ID is written first if no task has it, since it would be lost otherwise.
+     *
+     * @param path      the file to write.
+     * @param tasks     the tasks to write.
+     * @param highestId the highest ID any task has had.
+     * @throws IOException if an I/O error occurs during file writing.
+     */
+    private static void writeText(Path path, List<Task> tasks, long highestId) throws IOException {
+        long highestTaskId = 0;
+        for (Task task : tasks) {
+            highestTaskId = Math.max(highestTaskId, task.getId());
+        }
+        try (BufferedWriter bufferedWriter = Files.newBufferedWriter(path)) {
+            if (highestId > highestTaskId) {
+                bufferedWriter.write(HIGHEST_ID_PREFIX + highestId);
+                bufferedWriter.newLine();
+            }
             for (Task task : tasks) {
                 assert task != null : "Task in list should not be null when saving";
                 bufferedWriter.write(task.toFileString());
@@ -89,4 +834,4 @@ public class Storage {
             }
         }
     }
-}
\ No newline at end of file
+}
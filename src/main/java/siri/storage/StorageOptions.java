@@ -0,0 +1,201 @@
+package siri.storage;
+
+/**
+ * Holds the settings that control how {@link Storage} persists tasks.
+ * <p>
+ * Options start from sensible defaults and can be overridden either in code or,
+ * through {@link #fromSystemProperties()}, with {@code -D} flags when launching Siri:
+ * </p>
+ * <ul>
+ *     <li>{@code siri.storage.format}: {@code text} (default) or {@code binary}</li>
+ *     <li>{@code siri.storage.journal}: {@code true} (default) or {@code false}</li>
+ *     <li>{@code siri.storage.compactionThreshold}: log size in bytes before compaction</li>
+ *     <li>{@code siri.storage.parallelLoadThreshold}: text file size in bytes from which
+ *     the file is parsed on several threads</li>
+ *     <li>{@code siri.storage.durability}: {@code sync} (default) or {@code async}</li>
+ *     <li>{@code siri.storage.maxFlushDelayMillis}: how long asynchronous writes may be delayed</li>
+ * </ul>
+ *
+ * @see Storage
+ */
+public class StorageOptions {
+    private static final long DEFAULT_COMPACTION_THRESHOLD = 1024 * 1024;
+    private static final long DEFAULT_PARALLEL_LOAD_THRESHOLD = 8 * 1024 * 1024;
+    private static final long DEFAULT_MAX_FLUSH_DELAY_MILLIS = 200;
+
+    private SnapshotFormat format = SnapshotFormat.TEXT;
+    private boolean isJournaled = true;
+    private long compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+    private long parallelLoadThreshold = DEFAULT_PARALLEL_LOAD_THRESHOLD;
+    private Durability durability = Durability.SYNC;
+    private long maxFlushDelayMillis = DEFAULT_MAX_FLUSH_DELAY_MILLIS;
+
+    /**
+     * Returns a new set of options with every setting at its default value.
+     *
+     * @return the default options.
+     */
+    public static StorageOptions defaults() {
+        return new StorageOptions();
+    }
+
+    /**
+     * Returns a new set of options, overriding the defaults with any {@code siri.storage.*}
+     * system properties that are set.
+     *
+     * @return the options configured for this run of Siri.
+     * @throws IllegalArgumentException if a property has an invalid value.
+     */
+    public static StorageOptions fromSystemProperties() {
+        StorageOptions options = defaults();
+        String format = System.getProperty("siri.storage.format");
+        if (format != null) {
+            options.setFormat(SnapshotFormat.valueOf(format.trim().toUpperCase()));
+        }
+        String journal = System.getProperty("siri.storage.journal");
+        if (journal != null) {
+            options.setJournaled(Boolean.parseBoolean(journal.trim()));
+        }
+        String threshold = System.getProperty("siri.storage.compactionThreshold");
+        if (threshold != null) {
+            options.setCompactionThreshold(Long.parseLong(threshold.trim()));
+        }
+        String parallelThreshold = System.getProperty("siri.storage.parallelLoadThreshold");
+        if (parallelThreshold != null) {
+            options.setParallelLoadThreshold(Long.parseLong(parallelThreshold.trim()));
+        }
+        String durability = System.getProperty("siri.storage.durability");
+        if (durability != null) {
+            options.setDurability(Durability.valueOf(durability.trim().toUpperCase()));
+        }
+        String flushDelay = System.getProperty("siri.storage.maxFlushDelayMillis");
+        if (flushDelay != null) {
+            options.setMaxFlushDelayMillis(Long.parseLong(flushDelay.trim()));
+        }
+        return options;
+    }
+
+    /**
+     * Returns the format of the snapshot file.
+     */
+    public SnapshotFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Sets the format of the snapshot file.
+     *
+     * @param format the snapshot format.
+     * @return these options.
+     */
+    public StorageOptions setFormat(SnapshotFormat format) {
+        assert format != null : "Snapshot format should not be null";
+        this.format = format;
+        return this;
+    }
+
+    /**
+     * Returns whether changes are appended to a log instead of rewriting the snapshot.
+     */
+    public boolean isJournaled() {
+        return isJournaled;
+    }
+
+    /**
+     * Sets whether changes are appended to a log instead of rewriting the snapshot.
+     *
+     * @param isJournaled {@code true} to keep a log of changes.
+     * @return these options.
+     */
+    public StorageOptions setJournaled(boolean isJournaled) {
+        this.isJournaled = isJournaled;
+        return this;
+    }
+
+    /**
+     * Returns the log size in bytes after which the log is compacted into a new snapshot.
+     */
+    public long getCompactionThreshold() {
+        return compactionThreshold;
+    }
+
+    /**
+     * Sets the log size in bytes after which the log is compacted into a new snapshot.
+     *
+     * @param compactionThreshold a positive number of bytes.
+     * @return these options.
+     * @throws IllegalArgumentException if the threshold is not positive.
+     */
+    public StorageOptions setCompactionThreshold(long compactionThreshold) {
+        if (compactionThreshold <= 0) {
+            throw new IllegalArgumentException("Compaction threshold should be positive");
+        }
+        this.compactionThreshold = compactionThreshold;
+        return this;
+    }
+
+    /**
+     * Returns the text file size in bytes from which the file is parsed on several threads.
+     */
+    public long getParallelLoadThreshold() {
+        return parallelLoadThreshold;
+    }
+
+    /**
+     * Sets the text file size in bytes from which the file is parsed on several threads.
+     * Smaller files are read line by line on the calling thread.
+     *
+     * @param parallelLoadThreshold a non-negative number of bytes.
+     * @return these options.
+     * @throws IllegalArgumentException if the threshold is negative.
+     */
+    public StorageOptions setParallelLoadThreshold(long parallelLoadThreshold) {
+        if (parallelLoadThreshold < 0) {
+            throw new IllegalArgumentException("Parallel load threshold should not be negative");
+        }
+        this.parallelLoadThreshold = parallelLoadThreshold;
+        return this;
+    }
+
+    /**
+     * Returns whether commits wait for their changes to be written.
+     */
+    public Durability getDurability() {
+        return durability;
+    }
+
+    /**
+     * Sets whether commits wait for their changes to be written.
+     *
+     * @param durability the durability of commits.
+     * @return these options.
+     */
+    public StorageOptions setDurability(Durability durability) {
+        assert durability != null : "Durability should not be null";
+        this.durability = durability;
+        return this;
+    }
+
+    /**
+     * Returns the longest time in milliseconds that asynchronous writes may be delayed.
+     */
+    public long getMaxFlushDelayMillis() {
+        return maxFlushDelayMillis;
+    }
+
+    /**
+     * Sets the longest time in milliseconds that asynchronous writes may be delayed.
+     * Changes committed within this time are written together.
+     *
+     * @param maxFlushDelayMillis a non-negative number of milliseconds.
+     * @return these options.
+     * @throws IllegalArgumentException if the delay is negative.
+     */
+    public StorageOptions setMaxFlushDelayMillis(long maxFlushDelayMillis) {
+        if (maxFlushDelayMillis < 0) {
+            throw new IllegalArgumentException("Maximum flush delay should not be negative");
+        }
+        this.maxFlushDelayMillis = maxFlushDelayMillis;
+        return this;
+    }
+}
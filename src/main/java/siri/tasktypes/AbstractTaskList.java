@@ -0,0 +1,185 @@
+package siri.tasktypes;
+
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * The operations Siri uses on its list of tasks, whichever way the tasks are kept.
+ * <p>
+ * Tasks are referred to by their 0-based position in the list, and every task has an ID
+ * that does not change when other tasks are added or removed.
+ * </p>
+ *
+ * @see TaskList
+ * @see ConcurrentTaskList
+ * @see ColumnarTaskList
+ */
+public abstract class AbstractTaskList {
+
+    /**
+     * Makes sure that tasks added from now on get IDs higher than the given one,
+     * such as the highest ID of a task that was deleted before the list was loaded.
+     *
+     * @param highestId the highest ID any task has had.
+     */
+    public abstract void reserveIds(long highestId);
+
+    /**
+     * Adds a task to the end of the task list, giving it a new ID if it has none.
+     *
+     * @param task the task to be added to the list.
+     * @throws IllegalArgumentException if the task is an event overlapping an event in the list.
+     */
+    public abstract void add(Task task);
+
+    /**
+     * Puts a task that was removed back at the specified position, keeping its ID.
+     *
+     * @param index the 0-based index to insert the task at.
+     * @param task  the task to be inserted.
+     */
+    public abstract void insert(int index, Task task);
+
+    /**
+     * Removes the task at the specified position in the list and returns it.
+     *
+     * @param index the 0-based index of the task to be removed.
+     * @return the task that was removed from the list.
+     */
+    public abstract Task remove(int index);
+
+    /**
+     * Removes the tasks at the specified positions in a single pass over the list.
+     *
+     * @param indices the 0-based indices of the tasks to remove.
+     * @return the tasks that were removed, in list order.
+     */
+    public abstract List<Task> removeAll(BitSet indices);
+
+    /**
+     * Marks or unmarks the task at the specified position in the list.
+     *
+     * @param index  the 0-based index of the task.
+     * @param isDone {@code true} to mark the task as done, {@code false} to unmark it.
+     * @return {@code true} if the task changed, {@code false} if it already was in that state.
+     */
+    public abstract boolean mark(int index, boolean isDone);
+
+    /**
+     * Marks or unmarks the tasks at the specified positions.
+     *
+     * @param indices the 0-based indices of the tasks.
+     * @param isDone  {@code true} to mark the tasks as done, {@code false} to unmark them.
+     * @return the indices of the tasks that changed.
+     */
+    public BitSet markAll(BitSet indices, boolean isDone) {
+        BitSet changed = new BitSet();
+        for (int i = indices.nextSetBit(0); i >= 0; i = indices.nextSetBit(i + 1)) {
+            if (mark(i, isDone)) {
+                changed.set(i);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Returns the positions of all tasks that are done.
+     *
+     * @return the 0-based indices of the done tasks.
+     */
+    public abstract BitSet findDone();
+
+    /**
+     * Returns the task at the specified position in the list.
+     *
+     * @param index the 0-based index of the task to return.
+     * @return the task at the specified position.
+     */
+    public abstract Task get(int index);
+
+    /**
+     * Returns the task with the given ID.
+     *
+     * @param id the ID of the task.
+     * @return the task, or {@code null} if no task in the list has that ID.
+     */
+    public abstract Task getById(long id);
+
+    /**
+     * Returns the position of the given task in the list.
+     *
+     * @param task the task to look for.
+     * @return the 0-based index of the task, or -1 if it is not in the list.
+     */
+    public abstract int indexOf(Task task);
+
+    /**
+     * Returns the number of tasks in the list.
+     *
+     * @return the number of tasks in this list.
+     */
+    public abstract int size();
+
+    /**
+     * Returns the list of all the tasks, which should not be modified directly.
+     *
+     * @return the list of all the tasks.
+     */
+    public abstract List<Task> getAll();
+
+    /**
+     * Finds and returns all tasks whose description contains the given keyword, ignoring case.
+     *
+     * @param keyword this is the search term.
+     * @return a list of tasks that matches the search term, in list order.
+     */
+    public abstract List<Task> findTasks(String keyword);
+
+    /**
+     * Finds and returns all events whose time period overlaps the given period,
+     * in the order they appear in the list.
+     *
+     * @param from the start of the period.
+     * @param to   the end of the period.
+     * @return a list of events that overlap the period.
+     */
+    public abstract List<Event> findOverlapping(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Finds and returns the deadlines and events that are not done and are due before the given time,
+     * earliest first. Events are due when they start.
+     *
+     * @param end the time, exclusive, before which the tasks are due.
+     * @return a list of tasks due before {@code end}, including overdue ones.
+     */
+    public abstract List<Task> findDueBefore(LocalDateTime end);
+
+    /**
+     * Finds and returns the next deadlines and events that are not done, earliest first.
+     *
+     * @param now   the current time.
+     * @param count the largest number of tasks to return.
+     * @return at most {@code count} tasks due at or after {@code now}.
+     */
+    public abstract List<Task> findUpcoming(LocalDateTime now, int count);
+
+    /**
+     * Finds and returns the deadlines that are not done and have passed, earliest first.
+     *
+     * @param now the current time.
+     * @return a list of deadlines due before {@code now}.
+     */
+    public abstract List<Task> findOverdue(LocalDateTime now);
+
+    /**
+     * Builds a descriptive error message for a schedule clash between two events.
+     *
+     * @param newEvent the new event being added
+     * @param existing the existing event it clashes with
+     * @return the formatted clash message
+     */
+    static String buildClashMessage(Event newEvent, Event existing) {
+        return "Mate, schedule clashes! " + newEvent + " overlaps with " + existing;
+    }
+}
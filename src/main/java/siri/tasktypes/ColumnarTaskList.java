@@ -0,0 +1,539 @@
+package siri.tasktypes;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.stream.IntStream;
+
+/**
+ * A task list that keeps its tasks in primitive columns instead of as objects,
+ * for lists too large to hold comfortably in memory. It answers every query as a {@link TaskList} does.
+ * <p>
+ * Every task takes one slot in each column: a byte for its type, a bit for whether it is done,
+ * its ID, the epoch minutes of its deadline or start and end, and the position of its description
+ * in one shared array of UTF-8 bytes. A task costs about 33 bytes plus its description, where a
+ * {@link Deadline} object with its strings, dates and index entries costs several hundred, and the
+ * garbage collector has only a handful of arrays to trace however long the list grows.
+ * </p>
+ * <p>
+ * Repeated descriptions, such as those of recurring tasks, share their bytes. Like the
+ * {@link siri.util.StringInterner}, a table with a fixed number of slots remembers where the last
+ * description hashed to each slot is, so it never grows, and a description that is not repeated
+ * simply takes its slot over.
+ * </p>
+ * <p>
+ * {@link Task} objects are only created when they are asked for, as views of one slot.
+ * A view is a copy: changing it does not change the list, so tasks must be marked through
+ * {@link #mark(int, boolean)}. Times are kept to the minute, as in the binary snapshot.
+ * </p>
+ * <p>
+ * There are no indexes besides the columns themselves, so searches scan every task, and adding or
+ * removing a task before the end of the list shifts the tasks after it. Tasks are looked up by ID
+ * through a binary search of the IDs while they are in order, and otherwise of the rows sorted by
+ * ID, which are sorted again on the first lookup after each change. Each scan reads primitive
+ * arrays in order and only creates views of the tasks it returns. Descriptions are searched as
+ * bytes where possible, so {@link #findTasks(String)} usually decodes none of them.
+ * </p>
+ */
+public class ColumnarTaskList extends AbstractTaskList {
+    private static final byte TODO = 0;
+    private static final byte DEADLINE = 1;
+    private static final byte EVENT = 2;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int DESCRIPTION_SLOTS = 1 << 12;
+    /** Whether lowercasing an ASCII description leaves it ASCII, which it does in every locale but Turkish. */
+    private static final boolean IS_ASCII_LOWERCASE = "I".toLowerCase().equals("i");
+
+    private int size;
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private final BitSet done = new BitSet();
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] starts = new long[INITIAL_CAPACITY];
+    private long[] ends = new long[INITIAL_CAPACITY];
+    private int[] textStarts = new int[INITIAL_CAPACITY];
+    private int[] textLengths = new int[INITIAL_CAPACITY];
+    private byte[] text = new byte[INITIAL_CAPACITY * 16];
+    private int textSize;
+    private int textGarbage;
+    /** The position and length in {@code text} of the last description hashed to each slot. */
+    private final int[] slotStarts = new int[DESCRIPTION_SLOTS];
+    private final int[] slotLengths = new int[DESCRIPTION_SLOTS];
+    private long nextId = 1;
+    private boolean isIdSorted = true;
+    /** The rows in order of their IDs while the IDs are out of order, or {@code null} until a lookup needs them. */
+    private int[] rowsById;
+
+    /**
+     * Constructs an empty list.
+     */
+    public ColumnarTaskList() {
+        super();
+    }
+
+    /**
+     * Constructs a list holding the given tasks, giving an ID to those without one.
+     * The tasks themselves are not kept.
+     *
+     * @param tasks the initial tasks.
+     */
+    public ColumnarTaskList(List<Task> tasks) {
+        super();
+        ensureCapacity(tasks.size());
+        for (Task task : tasks) {
+            store(size, task);
+        }
+    }
+
+    @Override
+    public void reserveIds(long highestId) {
+        nextId = Math.max(nextId, highestId + 1);
+    }
+
+    @Override
+    public void add(Task task) {
+        assert task != null : "Cannot add a null task";
+        detectScheduleClash(task);
+        store(size, task);
+    }
+
+    @Override
+    public void insert(int index, Task task) {
+        assert task != null : "Cannot insert a null task";
+        assert index >= 0 && index <= size : "Index out of bounds for insert";
+        store(index, task);
+    }
+
+    @Override
+    public Task remove(int index) {
+        assert index >= 0 && index < size : "Index out of bounds for remove";
+        Task removed = view(index);
+        textGarbage += textLengths[index];
+        shift(index + 1, index, size - index - 1);
+        shiftDone(index + 1, index);
+        size--;
+        rowsById = null;
+        compactTextIfSparse();
+        return removed;
+    }
+
+    @Override
+    public List<Task> removeAll(BitSet indices) {
+        assert indices.length() <= size : "Index out of bounds for removeAll";
+        List<Task> removed = new ArrayList<>(indices.cardinality());
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (indices.get(i)) {
+                removed.add(view(i));
+                textGarbage += textLengths[i];
+                continue;
+            }
+            if (kept != i) {
+                shift(i, kept, 1);
+                done.set(kept, done.get(i));
+            }
+            kept++;
+        }
+        done.clear(kept, size);
+        size = kept;
+        rowsById = null;
+        compactTextIfSparse();
+        return removed;
+    }
+
+    @Override
+    public boolean mark(int index, boolean isDone) {
+        assert index >= 0 && index < size : "Index out of bounds for mark";
+        boolean isChanged = done.get(index) != isDone;
+        done.set(index, isDone);
+        return isChanged;
+    }
+
+    @Override
+    public BitSet findDone() {
+        return done.get(0, size);
+    }
+
+    /**
+     * Returns a view of the task at the specified position, created on each call.
+     *
+     * @param index the 0-based index of the task to return.
+     * @return a copy of the task at the specified position.
+     */
+    @Override
+    public Task get(int index) {
+        assert index >= 0 && index < size : "Index out of bounds for get";
+        return view(index);
+    }
+
+    @Override
+    public Task getById(long id) {
+        int index = indexOfId(id);
+        return index < 0 ? null : view(index);
+    }
+
+    @Override
+    public int indexOf(Task task) {
+        return indexOfId(task.getId());
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns a read-only view of all the tasks, which creates each task as it is read.
+     *
+     * @return the list of all the tasks.
+     */
+    @Override
+    public List<Task> getAll() {
+        return new View();
+    }
+
+    @Override
+    public List<Task> findTasks(String keyword) {
+        assert keyword != null : "Search keyword should not be null";
+        String lowerKeyword = keyword.toLowerCase();
+        byte[] keywordBytes = lowerKeyword.getBytes(StandardCharsets.UTF_8);
+        boolean isAsciiKeyword = IS_ASCII_LOWERCASE && keywordBytes.length == lowerKeyword.length();
+        List<Task> matchingTasks = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            int match = isAsciiKeyword ? containsAscii(i, keywordBytes) : -1;
+            if (match < 0) {
+                match = description(i).toLowerCase().contains(lowerKeyword) ? 1 : 0;
+            }
+            if (match == 1) {
+                matchingTasks.add(view(i));
+            }
+        }
+        return matchingTasks;
+    }
+
+    @Override
+    public List<Event> findOverlapping(LocalDateTime from, LocalDateTime to) {
+        assert from != null && to != null : "Period should not be null";
+        long fromMinutes = ceilEpochMinutes(from);
+        long toMinutes = floorEpochMinutes(to);
+        List<Event> overlapping = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (types[i] == EVENT && starts[i] <= toMinutes && ends[i] >= fromMinutes) {
+                overlapping.add((Event) view(i));
+            }
+        }
+        return overlapping;
+    }
+
+    @Override
+    public List<Task> findDueBefore(LocalDateTime end) {
+        assert end != null : "End time should not be null";
+        return findPending(Long.MIN_VALUE, ceilEpochMinutes(end), true, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Task> findUpcoming(LocalDateTime now, int count) {
+        assert now != null : "Current time should not be null";
+        return findPending(ceilEpochMinutes(now), Long.MAX_VALUE, true, count);
+    }
+
+    @Override
+    public List<Task> findOverdue(LocalDateTime now) {
+        assert now != null : "Current time should not be null";
+        return findPending(Long.MIN_VALUE, ceilEpochMinutes(now), false, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the pending deadlines, and events if asked for, due from {@code start} inclusive to
+     * {@code end} exclusive in epoch minutes. Like the {@link TaskTimeline}, they are sorted by time,
+     * with deadlines before events at the same time, and then by their position in the list.
+     */
+    private List<Task> findPending(long start, long end, boolean isWithEvents, int limit) {
+        List<Integer> matches = new ArrayList<>();
+        for (int i = done.nextClearBit(0); i < size; i = done.nextClearBit(i + 1)) {
+            boolean isDue = types[i] == DEADLINE || (isWithEvents && types[i] == EVENT);
+            if (isDue && starts[i] >= start && starts[i] < end) {
+                matches.add(i);
+            }
+        }
+        matches.sort(Comparator.<Integer>comparingLong(i -> starts[i]).thenComparingInt(i -> types[i]));
+        List<Task> pending = new ArrayList<>(Math.min(limit, matches.size()));
+        for (int i = 0; i < matches.size() && i < limit; i++) {
+            pending.add(view(matches.get(i)));
+        }
+        return pending;
+    }
+
+    /**
+     * Throws if the task is an event overlapping an event already in the list, naming the earliest such event.
+     */
+    private void detectScheduleClash(Task task) {
+        if (!(task instanceof Event)) {
+            return;
+        }
+        Event event = (Event) task;
+        long fromMinutes = ceilEpochMinutes(event.getFrom());
+        long toMinutes = floorEpochMinutes(event.getTo());
+        for (int i = 0; i < size; i++) {
+            if (types[i] == EVENT && starts[i] <= toMinutes && ends[i] >= fromMinutes) {
+                throw new IllegalArgumentException(buildClashMessage(event, (Event) view(i)));
+            }
+        }
+    }
+
+    /**
+     * Writes the task into a new slot at the given position, shifting later tasks back,
+     * giving the task a new ID first if it has none, as {@link TaskList#add(Task)} does.
+     */
+    private void store(int index, Task task) {
+        if (task.getId() == 0) {
+            task.setId(nextId);
+        }
+        long id = task.getId();
+        nextId = Math.max(nextId, id + 1);
+        ensureCapacity(size + 1);
+        shift(index, index + 1, size - index);
+        shiftDone(index, index + 1);
+        done.set(index, task.isDone());
+        ids[index] = id;
+        if (task instanceof Event) {
+            types[index] = EVENT;
+            starts[index] = floorEpochMinutes(((Event) task).getFrom());
+            ends[index] = floorEpochMinutes(((Event) task).getTo());
+        } else if (task instanceof Deadline) {
+            types[index] = DEADLINE;
+            starts[index] = floorEpochMinutes(((Deadline) task).getBy());
+        } else {
+            types[index] = TODO;
+        }
+        byte[] bytes = task.getDescription().getBytes(StandardCharsets.UTF_8);
+        textStarts[index] = storeText(bytes, 0, bytes.length);
+        textLengths[index] = bytes.length;
+        size++;
+        isIdSorted &= (index == 0 || ids[index - 1] < id) && (index == size - 1 || id < ids[index + 1]);
+        rowsById = null;
+    }
+
+    /**
+     * Returns the position in {@code text} of the description held in the given range of bytes,
+     * reusing the bytes of an equal description if one is remembered in its slot, and appending them otherwise.
+     */
+    private int storeText(byte[] bytes, int from, int length) {
+        int slot = slotOf(bytes, from, length);
+        int start = slotStarts[slot];
+        if (slotLengths[slot] == length && Arrays.equals(text, start, start + length, bytes, from, from + length)) {
+            return start;
+        }
+        if (textSize + length > text.length) {
+            text = Arrays.copyOf(text, Math.max(text.length * 3 / 2, textSize + length));
+        }
+        System.arraycopy(bytes, from, text, textSize, length);
+        slotStarts[slot] = textSize;
+        slotLengths[slot] = length;
+        textSize += length;
+        return slotStarts[slot];
+    }
+
+    private static int slotOf(byte[] bytes, int start, int length) {
+        int hash = 1;
+        for (int i = start; i < start + length; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        return (hash ^ (hash >>> 16)) & (DESCRIPTION_SLOTS - 1);
+    }
+
+    /**
+     * Creates a task holding the contents of the given slot.
+     */
+    private Task view(int index) {
+        String description = description(index);
+        Task task;
+        switch (types[index]) {
+        case DEADLINE:
+            task = new Deadline(description, toDateTime(starts[index]));
+            break;
+        case EVENT:
+            task = new Event(description, toDateTime(starts[index]), toDateTime(ends[index]));
+            break;
+        default:
+            task = new ToDo(description);
+            break;
+        }
+        task.setId(ids[index]);
+        if (done.get(index)) {
+            task.markDone();
+        }
+        return task;
+    }
+
+    private String description(int index) {
+        return new String(text, textStarts[index], textLengths[index], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns whether the description in the given slot contains the lowercase ASCII keyword,
+     * ignoring case, or -1 if the description is not all ASCII and has to be decoded instead.
+     */
+    private int containsAscii(int index, byte[] keyword) {
+        int start = textStarts[index];
+        int end = start + textLengths[index];
+        for (int i = start; i < end; i++) {
+            if (text[i] < 0) {
+                return -1;
+            }
+        }
+        for (int i = start; i <= end - keyword.length; i++) {
+            int k = 0;
+            while (k < keyword.length && toLowerAscii(text[i + k]) == keyword[k]) {
+                k++;
+            }
+            if (k == keyword.length) {
+                return 1;
+            }
+        }
+        return 0;
+    }
+
+    private static byte toLowerAscii(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+
+    /**
+     * Returns the position of the task with the given ID, by binary search of the IDs while they are
+     * in order, and of the rows sorted by ID otherwise.
+     */
+    private int indexOfId(long id) {
+        if (!isIdSorted && rowsById == null) {
+            sortRowsById();
+        }
+        if (isIdSorted) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            return index < 0 ? -1 : index;
+        }
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = ids[rowsById[mid]];
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return rowsById[mid];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Sorts the rows by ID, or notes that the IDs are in order again, such as once the tasks
+     * that were out of order have been removed.
+     */
+    private void sortRowsById() {
+        isIdSorted = true;
+        for (int i = 1; i < size && isIdSorted; i++) {
+            isIdSorted = ids[i - 1] < ids[i];
+        }
+        if (!isIdSorted) {
+            rowsById = IntStream.range(0, size).boxed()
+                    .sorted(Comparator.comparingLong(row -> ids[row]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+    }
+
+    /**
+     * Moves a run of slots in every column except the done flags, which are kept in a {@link BitSet}.
+     */
+    private void shift(int from, int to, int length) {
+        System.arraycopy(types, from, types, to, length);
+        System.arraycopy(ids, from, ids, to, length);
+        System.arraycopy(starts, from, starts, to, length);
+        System.arraycopy(ends, from, ends, to, length);
+        System.arraycopy(textStarts, from, textStarts, to, length);
+        System.arraycopy(textLengths, from, textLengths, to, length);
+    }
+
+    /**
+     * Moves the done flags from the given slot to the end of the list so that they start at another slot.
+     */
+    private void shiftDone(int from, int to) {
+        BitSet moved = done.get(from, size);
+        done.clear(Math.min(from, to), size + 1);
+        for (int i = moved.nextSetBit(0); i >= 0; i = moved.nextSetBit(i + 1)) {
+            done.set(to + i);
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= types.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, types.length * 3 / 2);
+        types = Arrays.copyOf(types, newCapacity);
+        ids = Arrays.copyOf(ids, newCapacity);
+        starts = Arrays.copyOf(starts, newCapacity);
+        ends = Arrays.copyOf(ends, newCapacity);
+        textStarts = Arrays.copyOf(textStarts, newCapacity);
+        textLengths = Arrays.copyOf(textLengths, newCapacity);
+    }
+
+    /**
+     * Rewrites the descriptions without the bytes of removed tasks once they take up half of the array.
+     * Bytes shared by several tasks are counted as removed with each of them, so the array may be
+     * rewritten early, and the rewrite shares repeated descriptions again.
+     */
+    private void compactTextIfSparse() {
+        if (textGarbage < INITIAL_CAPACITY * 16 || textGarbage * 2 < textSize) {
+            return;
+        }
+        byte[] oldText = text;
+        text = new byte[Math.max(INITIAL_CAPACITY * 16, Math.max(0, textSize - textGarbage) * 3 / 2)];
+        textSize = 0;
+        textGarbage = 0;
+        Arrays.fill(slotStarts, 0);
+        Arrays.fill(slotLengths, 0);
+        for (int i = 0; i < size; i++) {
+            textStarts[i] = storeText(oldText, textStarts[i], textLengths[i]);
+        }
+    }
+
+    private static long floorEpochMinutes(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    /**
+     * Returns the first whole minute at or after the given time.
+     */
+    private static long ceilEpochMinutes(LocalDateTime dateTime) {
+        long minutes = floorEpochMinutes(dateTime);
+        boolean isWholeMinute = dateTime.getSecond() == 0 && dateTime.getNano() == 0;
+        return isWholeMinute ? minutes : minutes + 1;
+    }
+
+    private static LocalDateTime toDateTime(long epochMinutes) {
+        return LocalDateTime.ofEpochSecond(epochMinutes * 60, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * A read-only list of every task, creating each task as it is read.
+     */
+    private class View extends AbstractList<Task> implements RandomAccess {
+        @Override
+        public Task get(int index) {
+            return ColumnarTaskList.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package siri.tasktypes;
+
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * A {@link TaskList} that many threads can read while another thread changes it.
+ * <p>
+ * Changes are made one at a time under the write lock of a {@link StampedLock}.
+ * Tasks are never changed once they are in the list: marking a task replaces it with a
+ * marked copy, so a task handed to a reader always keeps the state it had when it was read.
+ * </p>
+ * <p>
+ * {@link #getById(long)}, {@link #size()} and {@link #findTasks(String)} with a keyword long enough
+ * for the keyword index do not lock. The lookups read hash tables and the linked sets of the keyword
+ * index under an optimistic stamp, and only run again under the read lock if a change was made
+ * meanwhile. A lookup that sees a change half made may return a wrong result or throw; either is
+ * discarded. Those structures are only ever walked forwards, so such a lookup still ends.
+ * </p>
+ * <p>
+ * The other lookups walk trees whose links a change rearranges, and a walk that sees them half
+ * rearranged can go round in circles, so they take the read lock, which readers share with each
+ * other and only wait on while a change is being made.
+ * </p>
+ * <p>
+ * {@link #getAll()} returns an unmodifiable snapshot of the list. It is only built when asked for,
+ * such as when storage writes a new snapshot, under the read lock, and is then shared by every
+ * reader until the next change. {@link #get(int)} and {@link #size()} also read from it when it
+ * is up to date. Since snapshots are never changed, they can be saved on a background thread
+ * without holding up new commands.
+ * </p>
+ */
+public class ConcurrentTaskList extends TaskList {
+    private final StampedLock lock = new StampedLock();
+    private volatile List<Task> snapshot;
+    private volatile int size;
+
+    /**
+     * Constructs an empty list.
+     */
+    public ConcurrentTaskList() {
+        super();
+    }
+
+    /**
+     * Constructs a list holding the given tasks, giving an ID to those without one.
+     *
+     * @param tasks the initial tasks.
+     */
+    public ConcurrentTaskList(List<Task> tasks) {
+        super(tasks);
+        size = super.size();
+    }
+
+    @Override
+    public void reserveIds(long highestId) {
+        write(() -> {
+            super.reserveIds(highestId);
+            return null;
+        });
+    }
+
+    @Override
+    public void add(Task task) {
+        write(() -> {
+            super.add(task);
+            return null;
+        });
+    }
+
+    @Override
+    public void insert(int index, Task task) {
+        write(() -> {
+            super.insert(index, task);
+            return null;
+        });
+    }
+
+    @Override
+    public Task remove(int index) {
+        return write(() -> super.remove(index));
+    }
+
+    @Override
+    public List<Task> removeAll(BitSet indices) {
+        return write(() -> super.removeAll(indices));
+    }
+
+    @Override
+    public boolean mark(int index, boolean isDone) {
+        return write(() -> replaceWithMarkedCopy(index, isDone));
+    }
+
+    @Override
+    public BitSet markAll(BitSet indices, boolean isDone) {
+        return write(() -> {
+            BitSet changed = new BitSet();
+            for (int i = indices.nextSetBit(0); i >= 0; i = indices.nextSetBit(i + 1)) {
+                if (replaceWithMarkedCopy(i, isDone)) {
+                    changed.set(i);
+                }
+            }
+            return changed;
+        });
+    }
+
+    @Override
+    public Task get(int index) {
+        List<Task> current = snapshot;
+        if (current != null) {
+            return current.get(index);
+        }
+        return read(() -> super.get(index));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns an unmodifiable snapshot of all the tasks, which later changes to the list do not affect.
+     *
+     * @return the tasks in the list at the time of the last change.
+     */
+    @Override
+    public List<Task> getAll() {
+        List<Task> current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        long stamp = lock.readLock();
+        try {
+            current = snapshot;
+            if (current == null) {
+                current = List.copyOf(super.getAll());
+                snapshot = current;
+            }
+            return current;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public Task getById(long id) {
+        return readOptimistically(() -> super.getById(id));
+    }
+
+    @Override
+    public int indexOf(Task task) {
+        return read(() -> super.indexOf(super.getById(task.getId())));
+    }
+
+    @Override
+    public BitSet findDone() {
+        return read(super::findDone);
+    }
+
+    @Override
+    public List<Task> findTasks(String keyword) {
+        if (readOptimistically(() -> isFoundThroughIndex(keyword))) {
+            return readOptimistically(() -> super.findTasks(keyword));
+        }
+        return read(() -> super.findTasks(keyword));
+    }
+
+    @Override
+    public List<Event> findOverlapping(LocalDateTime from, LocalDateTime to) {
+        return read(() -> super.findOverlapping(from, to));
+    }
+
+    @Override
+    public List<Task> findDueBefore(LocalDateTime end) {
+        return read(() -> super.findDueBefore(end));
+    }
+
+    @Override
+    public List<Task> findUpcoming(LocalDateTime now, int count) {
+        return read(() -> super.findUpcoming(now, count));
+    }
+
+    @Override
+    public List<Task> findOverdue(LocalDateTime now) {
+        return read(() -> super.findOverdue(now));
+    }
+
+    /**
+     * Replaces the task at the given position with a marked or unmarked copy,
+     * leaving the task itself unchanged for readers that still hold it.
+     * Must be called while holding the write lock.
+     *
+     * @return {@code true} if the task changed, {@code false} if it already was in that state.
+     */
+    private boolean replaceWithMarkedCopy(int index, boolean isDone) {
+        Task task = super.get(index);
+        if (task.isDone() == isDone) {
+            return false;
+        }
+        Task marked = task.copy();
+        if (isDone) {
+            marked.markDone();
+        } else {
+            marked.markUndone();
+        }
+        replace(index, marked);
+        return true;
+    }
+
+    /**
+     * Runs a change to the list under the write lock, discarding the snapshot of the list.
+     */
+    private <T> T write(Supplier<T> change) {
+        long stamp = lock.writeLock();
+        try {
+            return change.get();
+        } finally {
+            snapshot = null;
+            size = super.size();
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Runs a lookup under the read lock.
+     */
+    private <T> T read(Supplier<T> lookup) {
+        long stamp = lock.readLock();
+        try {
+            return lookup.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Runs a lookup without locking, and again under the read lock if the list changed meanwhile.
+     * Only for lookups that walk hash tables and linked sets, which a change cannot make go round in circles.
+     */
+    private <T> T readOptimistically(Supplier<T> lookup) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                T result = lookup.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException | AssertionError e) {
+                // The lookup saw a change half made; it is run again under the lock.
+            }
+        }
+        return read(lookup);
+    }
+}
@@ -3,6 +3,8 @@ package siri.tasktypes;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
+import siri.util.DateTimes;
+
 /**
  * Represents a deadline task with a date/time attached.
  * It is a task that contains a description, deadline time and date,
@@ -18,7 +20,6 @@ import java.time.format.DateTimeFormatter;
 public class Deadline extends Task {
     protected LocalDateTime by;
 
-    private static final DateTimeFormatter INPUT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
     private static final DateTimeFormatter OUTPUT_FORMAT = DateTimeFormatter.ofPattern("MMM d yyyy h:mma");
 
     /**
@@ -30,27 +31,58 @@ public class Deadline extends Task {
      */
     public Deadline(String description, String by) {
         super(description);
-        this.by = LocalDateTime.parse(by, INPUT_FORMAT);
+        this.by = DateTimes.parse(by);
+    }
+
+    /**
+     * Constructs a new Deadline task with the description and an already parsed deadline.
+     * It is initially marked as not done.
+     *
+     * @param description the description of the deadline task.
+     * @param by the due date and time.
+     */
+    public Deadline(String description, LocalDateTime by) {
+        super(description);
+        assert by != null : "Deadline date and time should not be null";
+        this.by = by;
+    }
+
+    /**
+     * Returns the due date and time of the deadline.
+     */
+    public LocalDateTime getBy() {
+        return by;
+    }
+
+    /**
+     * Creates a new deadline with the same description and deadline.
+     *
+     * @return a new task that is not done and has no ID.
+     */
+    @Override
+    protected Task createCopy() {
+        return new Deadline(description, by);
     }
 
     /**
-     * Converts the task to a representation suited for file storage.
+     * Builds the representation of the task for file storage.
      *
      * @return a string representation of the task for file storage.
      * @see Task#fromFileString(String)
      */
     @Override
-    public String toFileString() {
-        return "D | " + (isDone ? "1" : "0") + " | " + description + " | " + by.format(INPUT_FORMAT);
+    protected String renderFileString() {
+        return "D | " + (isDone ? "1" : "0") + " | " + getFileDescription() + " | " + DateTimes.format(by)
+                + getIdField();
     }
 
     /**
-     * Returns a string representation of the task.
+     * Builds the string representation of the task.
      *
      * @return a formatted string showing the task's type, status icon, description and deadline.
      */
     @Override
-    public String toString() {
-        return "[D]" + super.toString() + " (by: " + by.format(OUTPUT_FORMAT) + ")";
+    protected String renderString() {
+        return "[D]" + super.renderString() + " (by: " + by.format(OUTPUT_FORMAT) + ")";
     }
 }
@@ -3,6 +3,8 @@ package siri.tasktypes;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
+import siri.util.DateTimes;
+
 /**
  * Represents an event task with a specific start and end time attached.
  * It is a task that contains a description, time period information indicating when the event occurs
@@ -18,7 +20,6 @@ public class Event extends Task {
     protected LocalDateTime from;
     protected LocalDateTime to;
 
-    private static final DateTimeFormatter INPUT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
     private static final DateTimeFormatter OUTPUT_FORMAT = DateTimeFormatter.ofPattern("MMM d yyyy h:mma");
 
     /**
@@ -30,9 +31,23 @@ public class Event extends Task {
      * @param to the end time string in "yyyy-MM-dd HHmm" format.
      */
     public Event(String description, String from, String to) {
+        this(description, DateTimes.parse(from), DateTimes.parse(to));
+    }
+
+    /**
+     * Constructs a new event task with the description and an already parsed time period.
+     * It is initially marked as not done.
+     *
+     * @param description the description of the event task.
+     * @param from the start date and time.
+     * @param to the end date and time.
+     * @throws IllegalArgumentException if the event ends before it starts.
+     */
+    public Event(String description, LocalDateTime from, LocalDateTime to) {
         super(description);
-        this.from = LocalDateTime.parse(from, INPUT_FORMAT);
-        this.to = LocalDateTime.parse(to, INPUT_FORMAT);
+        assert from != null && to != null : "Event period should not be null";
+        this.from = from;
+        this.to = to;
         if (this.to.isBefore(this.from)) {
             throw new IllegalArgumentException("Heyyy your end time cannot be before start time.");
         }
@@ -53,25 +68,35 @@ public class Event extends Task {
     }
 
     /**
-     * Converts the task to a representation suited for file storage.
+     * Creates a new event with the same description and time period.
+     *
+     * @return a new task that is not done and has no ID.
+     */
+    @Override
+    protected Task createCopy() {
+        return new Event(description, from, to);
+    }
+
+    /**
+     * Builds the representation of the task for file storage.
      *
      * @return a string representation of the task for file storage.
      * @see Task#fromFileString(String)
      */
     @Override
-    public String toFileString() {
-        return "E | " + (isDone ? "1" : "0") + " | " + description + " | "
-                + from.format(INPUT_FORMAT) + " | " + to.format(INPUT_FORMAT);
+    protected String renderFileString() {
+        return "E | " + (isDone ? "1" : "0") + " | " + getFileDescription() + " | "
+                + DateTimes.format(from) + " | " + DateTimes.format(to) + getIdField();
     }
 
     /**
-     * Returns a string representation of the task.
+     * Builds the string representation of the task.
      *
      * @return a formatted string showing the task's type, status icon, description and time period.
      */
     @Override
-    public String toString() {
-        return "[E]" + super.toString() + " (from: " + from.format(OUTPUT_FORMAT)
+    protected String renderString() {
+        return "[E]" + super.renderString() + " (from: " + from.format(OUTPUT_FORMAT)
                 + " to: " + to.format(OUTPUT_FORMAT) + ")";
     }
 }
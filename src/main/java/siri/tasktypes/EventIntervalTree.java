@@ -0,0 +1,252 @@
+package siri.tasktypes;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Augmented interval tree over the time periods of {@link Event} tasks.
+ * <p>
+ * Events are kept in a treap ordered by their start time, and every node also stores the
+ * latest end time found in its subtree. This lets overlap queries skip whole subtrees that
+ * end before the queried period, so a query costs O(log n + k) for k matching events.
+ * </p>
+ * <p>
+ * Periods are closed, so two events where one ends exactly when the other starts overlap,
+ * matching the clash rules of {@link TaskList}.
+ * </p>
+ *
+ * @see TaskList#findOverlapping(LocalDateTime, LocalDateTime)
+ */
+class EventIntervalTree {
+    private final Map<Event, Node> nodes = new IdentityHashMap<>();
+    private final Random random = new Random();
+    private Node root;
+    private long nextOrder;
+
+    /**
+     * A tree node holding one event.
+     * The insertion order doubles as the tie-breaker for events with the same period.
+     */
+    private static class Node {
+        private Event event;
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+        private final long order;
+        private final int priority;
+        private LocalDateTime maxTo;
+        private Node left;
+        private Node right;
+
+        private Node(Event event, long order, int priority) {
+            this.event = event;
+            this.from = event.getFrom();
+            this.to = event.getTo();
+            this.order = order;
+            this.priority = priority;
+            this.maxTo = to;
+        }
+    }
+
+    /**
+     * Adds an event to the tree.
+     *
+     * @param event the event to add.
+     */
+    void add(Event event) {
+        assert event != null : "Cannot index a null event";
+        assert !nodes.containsKey(event) : "Event should not be indexed twice";
+        Node node = new Node(event, nextOrder++, random.nextInt());
+        nodes.put(event, node);
+        root = insert(root, node);
+    }
+
+    /**
+     * Removes an event from the tree.
+     *
+     * @param event the event to remove.
+     * @return {@code true} if the event was in the tree.
+     */
+    boolean remove(Event event) {
+        Node node = nodes.remove(event);
+        if (node == null) {
+            return false;
+        }
+        root = delete(root, node);
+        return true;
+    }
+
+    /**
+     * Puts another version of an event, with the same period, in the place of the event,
+     * so that it keeps its position in the order of the list.
+     *
+     * @param previous the event in the tree.
+     * @param event    the event to put in its place.
+     */
+    void replace(Event previous, Event event) {
+        Node node = nodes.remove(previous);
+        assert node != null : "Replaced event should be in the tree";
+        assert node.from.equals(event.getFrom()) && node.to.equals(event.getTo()) : "Period should not change";
+        node.event = event;
+        nodes.put(event, node);
+    }
+
+    /**
+     * Returns the number of events in the tree.
+     */
+    int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Returns the earliest added event that overlaps the given period.
+     *
+     * @param from the start of the period.
+     * @param to   the end of the period.
+     * @return the overlapping event that was added first, or {@code null} if there is none.
+     */
+    Event findFirstOverlapping(LocalDateTime from, LocalDateTime to) {
+        List<Node> matches = new ArrayList<>();
+        collectOverlapping(root, from, to, matches);
+        Node first = null;
+        for (Node match : matches) {
+            if (first == null || match.order < first.order) {
+                first = match;
+            }
+        }
+        return first == null ? null : first.event;
+    }
+
+    /**
+     * Returns all events overlapping the given period, in the order they were added.
+     *
+     * @param from the start of the period.
+     * @param to   the end of the period.
+     * @return the overlapping events.
+     */
+    List<Event> findOverlapping(LocalDateTime from, LocalDateTime to) {
+        List<Node> matches = new ArrayList<>();
+        collectOverlapping(root, from, to, matches);
+        matches.sort(Comparator.comparingLong(node -> node.order));
+        List<Event> events = new ArrayList<>(matches.size());
+        for (Node match : matches) {
+            events.add(match.event);
+        }
+        return events;
+    }
+
+    /**
+     * Collects the nodes of the subtree whose periods overlap the given period.
+     */
+    private static void collectOverlapping(Node node, LocalDateTime from, LocalDateTime to, List<Node> matches) {
+        if (node == null || node.maxTo.isBefore(from)) {
+            return;
+        }
+        collectOverlapping(node.left, from, to, matches);
+        if (node.from.isAfter(to)) {
+            return;
+        }
+        if (!node.to.isBefore(from)) {
+            matches.add(node);
+        }
+        collectOverlapping(node.right, from, to, matches);
+    }
+
+    private Node insert(Node tree, Node node) {
+        if (tree == null) {
+            return node;
+        }
+        if (node.priority > tree.priority) {
+            Node[] halves = split(tree, node);
+            node.left = halves[0];
+            node.right = halves[1];
+            update(node);
+            return node;
+        }
+        if (compare(node, tree) < 0) {
+            tree.left = insert(tree.left, node);
+        } else {
+            tree.right = insert(tree.right, node);
+        }
+        update(tree);
+        return tree;
+    }
+
+    private Node delete(Node tree, Node node) {
+        assert tree != null : "Node to delete should be in the tree";
+        if (tree == node) {
+            return merge(tree.left, tree.right);
+        }
+        if (compare(node, tree) < 0) {
+            tree.left = delete(tree.left, node);
+        } else {
+            tree.right = delete(tree.right, node);
+        }
+        update(tree);
+        return tree;
+    }
+
+    /**
+     * Splits the subtree into the nodes ordered before the key and the nodes ordered after it.
+     */
+    private Node[] split(Node tree, Node key) {
+        if (tree == null) {
+            return new Node[] {null, null};
+        }
+        if (compare(tree, key) < 0) {
+            Node[] halves = split(tree.right, key);
+            tree.right = halves[0];
+            update(tree);
+            halves[0] = tree;
+            return halves;
+        }
+        Node[] halves = split(tree.left, key);
+        tree.left = halves[1];
+        update(tree);
+        halves[1] = tree;
+        return halves;
+    }
+
+    /**
+     * Merges two subtrees where every node of the first is ordered before the second.
+     */
+    private Node merge(Node first, Node second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        if (first.priority > second.priority) {
+            first.right = merge(first.right, second);
+            update(first);
+            return first;
+        }
+        second.left = merge(first, second.left);
+        update(second);
+        return second;
+    }
+
+    private static void update(Node node) {
+        LocalDateTime maxTo = node.to;
+        if (node.left != null && node.left.maxTo.isAfter(maxTo)) {
+            maxTo = node.left.maxTo;
+        }
+        if (node.right != null && node.right.maxTo.isAfter(maxTo)) {
+            maxTo = node.right.maxTo;
+        }
+        node.maxTo = maxTo;
+    }
+
+    private static int compare(Node a, Node b) {
+        int result = a.from.compareTo(b.from);
+        if (result == 0) {
+            result = a.to.compareTo(b.to);
+        }
+        return result != 0 ? result : Long.compare(a.order, b.order);
+    }
+}
@@ -0,0 +1,156 @@
+package siri.tasktypes;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Trigram index over the lowercase descriptions of tasks, used to answer substring searches.
+ * <p>
+ * Every run of three characters in a description maps to the set of tasks containing it.
+ * A keyword can only be contained in descriptions that contain all of its trigrams, so a search
+ * only checks the tasks in the smallest of those sets instead of the whole list.
+ * Each set keeps its tasks in the order they were added, which is also their order in the
+ * {@link TaskList}, so results come out in list order without sorting. The sets hold an entry
+ * for each task rather than the task itself, so that a task can be replaced by another version
+ * of it without losing its place.
+ * </p>
+ * <p>
+ * Keywords shorter than three characters have no trigrams and fall back to a scan, which still
+ * avoids lowercasing every description again by using the cached lowercase forms.
+ * </p>
+ *
+ * @see TaskList#findTasks(String)
+ */
+class KeywordIndex {
+    private static final int GRAM_LENGTH = 3;
+
+    private final Map<Long, Set<Entry>> postings = new HashMap<>();
+    private final Map<Task, Entry> entries = new IdentityHashMap<>();
+
+    /**
+     * A task in the index, together with its lowercase description.
+     */
+    private static class Entry {
+        private Task task;
+        private final String lowerDescription;
+
+        private Entry(Task task) {
+            this.task = task;
+            this.lowerDescription = task.getDescription().toLowerCase();
+        }
+    }
+
+    /**
+     * Adds a task to the index. Tasks must be added in list order.
+     *
+     * @param task the task to add.
+     */
+    void add(Task task) {
+        assert task != null : "Cannot index a null task";
+        Entry entry = new Entry(task);
+        entries.put(task, entry);
+        for (int i = 0; i + GRAM_LENGTH <= entry.lowerDescription.length(); i++) {
+            postings.computeIfAbsent(gramAt(entry.lowerDescription, i), gram -> new LinkedHashSet<>()).add(entry);
+        }
+    }
+
+    /**
+     * Removes a task from the index.
+     *
+     * @param task the task to remove.
+     */
+    void remove(Task task) {
+        Entry entry = entries.remove(task);
+        if (entry == null) {
+            return;
+        }
+        for (int i = 0; i + GRAM_LENGTH <= entry.lowerDescription.length(); i++) {
+            Long gram = gramAt(entry.lowerDescription, i);
+            Set<Entry> posting = postings.get(gram);
+            if (posting != null && posting.remove(entry) && posting.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    /**
+     * Puts another version of a task, with the same description, in the place of the task.
+     *
+     * @param previous the task in the index.
+     * @param task     the task to put in its place.
+     */
+    void replace(Task previous, Task task) {
+        Entry entry = entries.remove(previous);
+        assert entry != null : "Replaced task should be in the index";
+        assert entry.lowerDescription.equals(task.getDescription().toLowerCase()) : "Description should not change";
+        entry.task = task;
+        entries.put(task, entry);
+    }
+
+    /**
+     * Returns whether the keyword is long enough to be looked up through the index rather than by a scan.
+     *
+     * @param keyword the search term.
+     * @return {@code true} if the keyword has at least one trigram.
+     */
+    static boolean isIndexed(String keyword) {
+        return keyword.toLowerCase().length() >= GRAM_LENGTH;
+    }
+
+    /**
+     * Returns the tasks whose description contains the keyword, ignoring case, in list order.
+     *
+     * @param keyword the search term.
+     * @param tasks   the tasks in list order, scanned when the keyword is too short to use the index.
+     * @return the matching tasks.
+     */
+    List<Task> find(String keyword, List<Task> tasks) {
+        String lowerKeyword = keyword.toLowerCase();
+        List<Task> matchingTasks = new ArrayList<>();
+        if (lowerKeyword.length() < GRAM_LENGTH) {
+            for (Task task : tasks) {
+                if (entries.get(task).lowerDescription.contains(lowerKeyword)) {
+                    matchingTasks.add(task);
+                }
+            }
+            return matchingTasks;
+        }
+
+        for (Entry entry : smallestPosting(lowerKeyword)) {
+            if (entry.lowerDescription.contains(lowerKeyword)) {
+                matchingTasks.add(entry.task);
+            }
+        }
+        return matchingTasks;
+    }
+
+    /**
+     * Returns the smallest set of tasks sharing a trigram with the keyword.
+     * Every task containing the keyword is in this set.
+     */
+    private Set<Entry> smallestPosting(String lowerKeyword) {
+        Set<Entry> smallest = null;
+        for (int i = 0; i + GRAM_LENGTH <= lowerKeyword.length(); i++) {
+            Set<Entry> posting = postings.get(gramAt(lowerKeyword, i));
+            if (posting == null) {
+                return Set.of();
+            }
+            if (smallest == null || posting.size() < smallest.size()) {
+                smallest = posting;
+            }
+        }
+        return smallest;
+    }
+
+    /**
+     * Packs the three characters starting at the given position into a single key.
+     */
+    private static Long gramAt(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+}
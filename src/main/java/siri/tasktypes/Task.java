@@ -1,11 +1,29 @@
 package siri.tasktypes;
 
+import java.time.DateTimeException;
+import java.util.ArrayList;
+import java.util.List;
+
+import siri.util.StringInterner;
+
 /**
  * Represents an abstract task with basic properties and behavior.
  * This serves as the base class for all specific task types in the chatbot.
  *
- * <p>Concrete task types must implement the {@link #toFileString()} method to provide
- * their specific file storage format.</p>
+ * <p>Concrete task types must implement the {@link #renderFileString()} method to provide
+ * their specific file storage format, and may extend {@link #renderString()}.</p>
+ *
+ * <p>In the file string, every {@code |} in the description is written as {@code \|}, so that
+ * the description never contains the {@code " | "} separating the fields of the line.</p>
+ *
+ * <p>Tasks rarely change after they are created, so the display and file strings are
+ * built once and reused until the task changes. Anything that changes a field of a task
+ * must call {@link #invalidate()} afterwards so that the strings are built again.</p>
+ *
+ * <p>The strings may be built on a background thread, such as when storage writes a snapshot,
+ * while the task is changed. Each kept string therefore records the version of the task it was
+ * built from, and is only reused while the task is still at that version, so a string built
+ * just before a change is never returned after it. Tasks are changed by one thread at a time.</p>
  *
  * @see ToDo
  * @see Deadline
@@ -13,8 +31,37 @@ package siri.tasktypes;
  * @see #fromFileString(String)
  */
 public abstract class Task {
+    /**
+     * The table through which descriptions read from storage or typed in by the user are shared,
+     * so that tasks with the same description, such as recurring ones, hold a single string.
+     */
+    public static final StringInterner DESCRIPTIONS = new StringInterner(1 << 14);
+
+    private static final String FIELD_SEPARATOR = " | ";
+    private static final String ESCAPED_BAR = "\\|";
+    private static final int MAX_ID_DIGITS = 18;
+
     protected String description;
     protected boolean isDone;
+    protected long id;
+
+    /** Counts the changes to the fields; written after the fields, so reading it first shows them. */
+    private volatile int version;
+    private Rendered displayString;
+    private Rendered fileString;
+
+    /**
+     * A string built from the fields of a task, together with the version of the task it was built from.
+     */
+    private static final class Rendered {
+        private final int version;
+        private final String text;
+
+        private Rendered(int version, String text) {
+            this.version = version;
+            this.text = text;
+        }
+    }
 
     /**
      * Constructs a new Task with the specified description.
@@ -38,6 +85,45 @@ public abstract class Task {
         return description;
     }
 
+    /**
+     * Returns the ID of this task, which stays the same while other tasks are added or removed.
+     *
+     * @return the ID, or 0 if the task has not been given one yet.
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Gives this task its ID. Tasks get an ID when they are added to a {@link TaskList},
+     * so this is only needed when restoring tasks from storage.
+     *
+     * @param id a positive ID that no other task in the list has.
+     */
+    public void setId(long id) {
+        assert id > 0 : "Task ID should be positive";
+        this.id = id;
+        invalidate();
+    }
+
+    /**
+     * Returns the description as it is written in the file string, with every {@code |} escaped.
+     *
+     * @return the escaped description.
+     */
+    protected String getFileDescription() {
+        return description.indexOf('|') < 0 ? description : description.replace("|", ESCAPED_BAR);
+    }
+
+    /**
+     * Returns the last field of the file string, which holds the ID of the task.
+     *
+     * @return the ID field with its separator, or an empty string if the task has no ID.
+     */
+    protected String getIdField() {
+        return id == 0 ? "" : FIELD_SEPARATOR + id;
+    }
+
     /**
      * Returns the status icon depending on whether the task is done.
      *
@@ -47,31 +133,109 @@ public abstract class Task {
         return (isDone ? "X" : " ");
     }
 
+    /**
+     * Returns whether this task is done.
+     *
+     * @return {@code true} if the task is done, {@code false} otherwise.
+     */
+    public boolean isDone() {
+        return isDone;
+    }
+
     /**
      * Marks this task done.
+     *
+     * @return {@code true} if the task was not done before, {@code false} if nothing changed.
      */
-    public void markDone() {
+    public boolean markDone() {
+        boolean isChanged = !isDone;
         isDone = true;
+        if (isChanged) {
+            invalidate();
+        }
+        return isChanged;
     }
 
     /**
      * Unmarks this task.
+     *
+     * @return {@code true} if the task was done before, {@code false} if nothing changed.
      */
-    public void markUndone() {
+    public boolean markUndone() {
+        boolean isChanged = isDone;
         isDone = false;
+        if (isChanged) {
+            invalidate();
+        }
+        return isChanged;
+    }
+
+    /**
+     * Returns a new task with the same fields as this one, including its status and ID.
+     * The copy shares the display and file strings already built for this task.
+     *
+     * @return a copy of this task that can be changed without affecting this one.
+     */
+    public Task copy() {
+        Task copy = createCopy();
+        copy.isDone = isDone;
+        copy.id = id;
+        copy.displayString = displayString;
+        copy.fileString = fileString;
+        copy.version = version;
+        return copy;
+    }
+
+    /**
+     * Creates a new task of the same type with the same description and times,
+     * which {@link #copy()} then gives the status and ID of this task.
+     *
+     * @return a new task that is not done and has no ID.
+     */
+    protected abstract Task createCopy();
+
+    /**
+     * Discards the display and file strings, so that they are built again from the
+     * current fields the next time they are needed.
+     */
+    protected void invalidate() {
+        version++;
+        displayString = null;
+        fileString = null;
     }
 
     /**
      * Converts the task to a representation suited for file storage.
-     * The format should allow reconstruction of the task using {@link #fromFileString(String)}.
+     * The format allows reconstruction of the task using {@link #fromFileString(String)}.
+     *
+     * @return a string representation of the task for file storage.
+     */
+    public String toFileString() {
+        int current = version;
+        Rendered rendered = fileString;
+        if (rendered == null || rendered.version != current) {
+            rendered = new Rendered(current, renderFileString());
+            fileString = rendered;
+        }
+        return rendered.text;
+    }
+
+    /**
+     * Builds the representation of the task for file storage, which is then kept by {@link #toFileString()}.
      *
      * @return a string representation of the task for file storage.
      */
-    public abstract String toFileString();
+    protected abstract String renderFileString();
 
     /**
      * Creates a Task object from its file storage representation
      * based the appropriate task type (ToDo, Deadline, or Event).
+     * <p>
+     * The dates and the optional ID are read from the end of the line, so a line written before
+     * descriptions were escaped, whose description contains {@code " | "}, is still read whole.
+     * A line that cannot be read, such as one with an invalid date, only makes this method
+     * return {@code null}, so that the other lines of a file can still be loaded.
+     * </p>
      *
      * @param line the file string representation of a task read from storage.
      * @return a Task object reconstructed from the file representation or null
@@ -80,45 +244,144 @@ public abstract class Task {
      */
     public static Task fromFileString(String line) {
         assert line != null : "File line passed to Task.fromFileString should not be null";
-        String[] parts = line.split(" \\| ");
-        assert parts.length >= 3 : "File line should have at least 3 parts";
-        String type = parts[0];
-        boolean isDone = parts[1].equals("1");
-        String description = parts[2];
+        String[] parts = splitFields(line);
+        int dateCount = countDateFields(parts[0]);
+        if (dateCount < 0 || parts.length < 3 + dateCount) {
+            return null;
+        }
+        int end = parts.length;
+        long id = 0;
+        if (end > 3 + dateCount && isId(parts[end - 1])) {
+            id = Long.parseLong(parts[end - 1]);
+            end--;
+        }
+        String description = DESCRIPTIONS.intern(unescape(joinFields(parts, 2, end - dateCount)));
+        Task task;
+        try {
+            task = createTask(parts[0], description, parts, end - dateCount);
+        } catch (DateTimeException e) {
+            return null;
+        }
+        if (parts[1].equals("1")) {
+            task.markDone();
+        }
+        if (id != 0) {
+            task.setId(id);
+        }
+        return task;
+    }
 
+    /**
+     * Returns the number of date fields that follow the description for the given type,
+     * or -1 if the type is unknown.
+     */
+    private static int countDateFields(String type) {
         switch (type) {
-            case "T":
-                Task t = new ToDo(description);
-                if (isDone) {
-                    t.markDone();
-                }
-                return t;
-            case "D":
-                assert parts.length >= 4 : "Deadline line must have 4 parts";
-                Task d = new Deadline(description, parts[3]);
-                if (isDone) {
-                    d.markDone();
-                }
-                return d;
-            case "E":
-                assert parts.length >= 5 : "Event line must have 5 parts";
-                Task e = new Event(description, parts[3], parts[4]);
-                if (isDone) {
-                    e.markDone();
-                }
-                return e;
-            default:
-                return null;
+        case "T":
+            return 0;
+        case "D":
+            return 1;
+        case "E":
+            return 2;
+        default:
+            return -1;
         }
     }
 
+    /**
+     * Returns whether a field holds a positive task ID.
+     */
+    private static boolean isId(String field) {
+        if (field.isEmpty() || field.length() > MAX_ID_DIGITS) {
+            return false;
+        }
+        for (int i = 0; i < field.length(); i++) {
+            if (field.charAt(i) < '0' || field.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return Long.parseLong(field) > 0;
+    }
+
+    private static String joinFields(String[] parts, int start, int end) {
+        return end - start == 1 ? parts[start] : String.join(FIELD_SEPARATOR, List.of(parts).subList(start, end));
+    }
+
+    private static String unescape(String fileDescription) {
+        return fileDescription.indexOf('\\') < 0 ? fileDescription : fileDescription.replace(ESCAPED_BAR, "|");
+    }
+
+    /**
+     * Creates a task of the given type from the fields of its file string.
+     *
+     * @param type        the type field, such as {@code "T"}.
+     * @param description the description, already unescaped.
+     * @param parts       all fields of the file string.
+     * @param dateStart   the index of the first date field.
+     * @return the task.
+     * @throws DateTimeException if a date field is invalid.
+     */
+    private static Task createTask(String type, String description, String[] parts, int dateStart) {
+        switch (type) {
+        case "D":
+            return new Deadline(description, parts[dateStart]);
+        case "E":
+            return new Event(description, parts[dateStart], parts[dateStart + 1]);
+        default:
+            return new ToDo(description);
+        }
+    }
+
+    /**
+     * Splits a line of the storage file into its fields, which are separated by {@code " | "}.
+     * Behaves like {@code line.split(" \\| ")}, including the removal of trailing empty fields,
+     * without compiling a regular expression for every line.
+     *
+     * @param line the file string representation of a task.
+     * @return the fields of the line.
+     */
+    private static String[] splitFields(String line) {
+        int separator = line.indexOf(FIELD_SEPARATOR);
+        if (separator < 0) {
+            return new String[] {line};
+        }
+        List<String> fields = new ArrayList<>(5);
+        int fieldStart = 0;
+        while (separator >= 0) {
+            fields.add(line.substring(fieldStart, separator));
+            fieldStart = separator + FIELD_SEPARATOR.length();
+            separator = line.indexOf(FIELD_SEPARATOR, fieldStart);
+        }
+        fields.add(line.substring(fieldStart));
+        int count = fields.size();
+        while (count > 0 && fields.get(count - 1).isEmpty()) {
+            count--;
+        }
+        return fields.subList(0, count).toArray(new String[0]);
+    }
+
     /**
      * Returns a string representation of the task.
      *
-     * @return a formatted string showing the task's status icon and description.
+     * @return a formatted string showing the task's type, status icon and description.
      */
     @Override
     public String toString() {
+        int current = version;
+        Rendered rendered = displayString;
+        if (rendered == null || rendered.version != current) {
+            rendered = new Rendered(current, renderString());
+            displayString = rendered;
+        }
+        return rendered.text;
+    }
+
+    /**
+     * Builds the string representation of the task, which is then kept by {@link #toString()}.
+     *
+     * @return a formatted string showing the task's status icon and description.
+     */
+    protected String renderString() {
         assert description != null : "Task description should never be null";
         return "[" + getStatusIcon() + "] " + description;
     }
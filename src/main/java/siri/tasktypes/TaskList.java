@@ -1,52 +1,157 @@
 package siri.tasktypes;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Contains the task list and provides operations to manage them
  * while maintaining encapsulation of the underlying list.
  * This class wraps a {@link List} of {@link Task} objects.
+ * <p>
+ * Every task in the list has an ID that does not change when other tasks are added or removed.
+ * Tasks can be looked up by ID in O(1), and added, removed or located by position in O(log n).
+ * Searches go through indexes kept alongside the list.
+ * </p>
  *
  * @see Task
  * @see List
+ * @see AbstractTaskList
  */
-public class TaskList {
-    private List<Task> tasks;
+public class TaskList extends AbstractTaskList {
+    private TaskSequence tasks;
+    private final Map<Long, Task> tasksById = new HashMap<>();
+    private long nextId = 1;
+    private EventIntervalTree events = new EventIntervalTree();
+    private KeywordIndex keywords = new KeywordIndex();
+    private final TaskTimeline timeline = new TaskTimeline();
+    private boolean isIndexOrderStale;
 
     /**
      * Constructs an empty TaskList with no tasks.
      */
     public TaskList() {
-        this.tasks = new ArrayList<>();
+        this.tasks = new TaskSequence();
         assert tasks != null : "Task list should be initialized";
     }
 
     /**
      * Constructs a TaskList initialized with the list of tasks provided by the user.
      *
+     * Tasks without an ID are given one.
+     *
      * @param tasks the initial list of tasks to be filled in the TaskList.
      */
     public TaskList(List<Task> tasks) {
-        this.tasks = tasks;
         assert tasks != null : "Task list provided should not be null";
+        assignMissingIds(tasks);
+        this.tasks = new TaskSequence(tasks);
+        for (Task task : tasks) {
+            nextId = Math.max(nextId, task.getId() + 1);
+            index(task);
+        }
+    }
+
+    /**
+     * Gives every task without an ID a new one, higher than any ID already in the list.
+     *
+     * @param tasks the tasks to give IDs to.
+     * @return {@code true} if any task was given an ID, so that the IDs should be saved.
+     */
+    public static boolean assignMissingIds(List<Task> tasks) {
+        return assignMissingIds(tasks, 0);
+    }
+
+    /**
+     * Gives a new ID to every task without one, and to every task whose ID an earlier task already has,
+     * such as tasks read from a damaged file. New IDs are higher than any ID in the list and than
+     * the given ID, so that the IDs of deleted tasks are not given out again.
+     *
+     * @param tasks     the tasks to give IDs to.
+     * @param highestId the highest ID any task has had, or 0 if unknown.
+     * @return {@code true} if any task was given an ID, so that the IDs should be saved.
+     */
+    public static boolean assignMissingIds(List<Task> tasks, long highestId) {
+        long maxId = highestId;
+        for (Task task : tasks) {
+            maxId = Math.max(maxId, task.getId());
+        }
+        Set<Long> usedIds = new HashSet<>();
+        boolean isAssigned = false;
+        for (Task task : tasks) {
+            if (task.getId() == 0 || !usedIds.add(task.getId())) {
+                task.setId(++maxId);
+                usedIds.add(maxId);
+                isAssigned = true;
+            }
+        }
+        return isAssigned;
+    }
+
+    /**
+     * Makes sure that tasks added from now on get IDs higher than the given one,
+     * such as the highest ID of a task that was deleted before the list was loaded.
+     *
+     * @param highestId the highest ID any task has had.
+     */
+    @Override
+    public void reserveIds(long highestId) {
+        nextId = Math.max(nextId, highestId + 1);
     }
 
     /**
-     * Adds a task to the end of the task list.
+     * Adds a task to the end of the task list, giving it a new ID if it has none.
      *
      * @param task the task to be added to the list.
      */
+    @Override
     public void add(Task task) {
         assert task != null : "Cannot add a null task";
         int sizeBefore = tasks.size();
         detectScheduleClash(task);
+        if (task.getId() == 0) {
+            task.setId(nextId);
+        }
+        nextId = Math.max(nextId, task.getId() + 1);
         tasks.add(task);
+        index(task);
         assert tasks.size() == sizeBefore + 1 : "Task should be added to the task list";
         assert tasks.get(tasks.size() - 1) == task : "Last task should be the one just added";
 
     }
 
+    /**
+     * Puts a task that was removed back at the specified position, keeping its ID.
+     * <p>
+     * The indexes keep tasks in the order they were added, so once a task has been put back
+     * before the end of the list, lookups through them sort their results back into list order
+     * until the indexes are next rebuilt in list order, by {@link #removeAll(BitSet)}, or the list is emptied.
+     * </p>
+     *
+     * @param index the 0-based index to insert the task at.
+     * @param task  the task to be inserted.
+     */
+    @Override
+    public void insert(int index, Task task) {
+        assert task != null : "Cannot insert a null task";
+        assert index >= 0 && index <= tasks.size() : "Index out of bounds for insert";
+        if (task.getId() == 0) {
+            task.setId(nextId);
+        }
+        nextId = Math.max(nextId, task.getId() + 1);
+        isIndexOrderStale |= index < tasks.size();
+        tasks.add(index, task);
+        index(task);
+    }
+
     /**
      * Removes the task from the list and returns the task
      * at the specified position in the list.
@@ -54,19 +159,106 @@ public class TaskList {
      * @param index the 0-based index of the task to be removed.
      * @return the task that was removed from the list.
      */
+    @Override
     public Task remove(int index) {
         assert index >= 0 && index < tasks.size() : "Index out of bounds for remove";
         Task removed = tasks.remove(index);
         assert removed != null : "Removed task should not be null";
+        unindex(removed);
+        isIndexOrderStale &= tasks.size() > 0;
+        return removed;
+    }
+
+    /**
+     * Removes the tasks at the specified positions in a single pass over the list.
+     * If a task has been put back before the end of the list, the indexes are also rebuilt
+     * in list order during the pass, so that lookups no longer have to sort their results.
+     *
+     * @param indices the 0-based indices of the tasks to remove.
+     * @return the tasks that were removed, in list order.
+     */
+    @Override
+    public List<Task> removeAll(BitSet indices) {
+        assert indices.length() <= tasks.size() : "Index out of bounds for removeAll";
+        List<Task> removed = new ArrayList<>(indices.cardinality());
+        for (int i = indices.nextSetBit(0); i >= 0; i = indices.nextSetBit(i + 1)) {
+            removed.add(tasks.get(i));
+        }
+        Set<Task> removedSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        removedSet.addAll(removed);
+        tasks.removeIf(removedSet::contains);
+        for (Task task : removed) {
+            unindex(task);
+        }
+        if (isIndexOrderStale) {
+            rebuildIndexOrder();
+        }
         return removed;
     }
 
+    /**
+     * Replaces the task at the specified position with another version of the same task,
+     * such as a copy that has been marked, keeping the indexes up to date.
+     *
+     * @param index the 0-based index of the task.
+     * @param task  the new version of the task, with the same ID.
+     * @return the version of the task that was replaced.
+     */
+    Task replace(int index, Task task) {
+        assert task.getId() == tasks.get(index).getId() : "Replacement should be the same task";
+        Task previous = tasks.set(index, task);
+        tasksById.put(task.getId(), task);
+        keywords.replace(previous, task);
+        timeline.remove(previous);
+        timeline.add(task);
+        if (isEvent(task)) {
+            events.replace((Event) previous, (Event) task);
+        }
+        return previous;
+    }
+
+    /**
+     * Returns the positions of all tasks that are done.
+     *
+     * @return the 0-based indices of the done tasks.
+     */
+    @Override
+    public BitSet findDone() {
+        BitSet done = new BitSet();
+        int index = 0;
+        for (Task task : tasks) {
+            if (task.isDone()) {
+                done.set(index);
+            }
+            index++;
+        }
+        return done;
+    }
+
+    /**
+     * Marks or unmarks the task at the specified position in the list.
+     * Tasks should be marked through this method rather than directly, so that the indexes stay up to date.
+     *
+     * @param index  the 0-based index of the task.
+     * @param isDone {@code true} to mark the task as done, {@code false} to unmark it.
+     * @return {@code true} if the task changed, {@code false} if it already was in that state.
+     */
+    @Override
+    public boolean mark(int index, boolean isDone) {
+        Task task = get(index);
+        timeline.remove(task);
+        boolean isChanged = isDone ? task.markDone() : task.markUndone();
+        timeline.add(task);
+        return isChanged;
+    }
+
     /**
      * Returns the task at the specified position in the list.
      *
      * @param index the 0-based index of the task to return.
      * @return the task at the specified position.
      */
+    @Override
     public Task get(int index) {
         assert index >= 0 && index < tasks.size() : "Index out of bounds for get";
         Task task = tasks.get(index);
@@ -74,11 +266,34 @@ public class TaskList {
         return task;
     }
 
+    /**
+     * Returns the task with the given ID.
+     *
+     * @param id the ID of the task.
+     * @return the task, or {@code null} if no task in the list has that ID.
+     */
+    @Override
+    public Task getById(long id) {
+        return tasksById.get(id);
+    }
+
+    /**
+     * Returns the position of the given task in the list.
+     *
+     * @param task the task to look for.
+     * @return the 0-based index of the task, or -1 if it is not in the list.
+     */
+    @Override
+    public int indexOf(Task task) {
+        return tasks.indexOf(task);
+    }
+
     /**
      * Returns the number of tasks in the list.
      *
      * @return the number of tasks in this list.
      */
+    @Override
     public int size() {
         int size = tasks.size();
         assert size >= 0 : "Task list size should never be negative";
@@ -87,9 +302,11 @@ public class TaskList {
 
     /**
      * Returns the list of all the tasks.
+     * The list should not be modified directly, as that would bypass the indexes.
      *
      * @return the list of all the tasks.
      */
+    @Override
     public List<Task> getAll() {
         assert tasks != null : "Task list should not be null when returning all tasks";
         return tasks;
@@ -101,23 +318,79 @@ public class TaskList {
      * @param keyword this is the search term.
      * @return a list of tasks that matches the search term.
      */
+    @Override
     public List<Task> findTasks(String keyword) {
         assert keyword != null : "Search keyword should not be null";
-        List<Task> matchingTasks = new ArrayList<>();
-        String lowerKeyword = keyword.toLowerCase();
-
-        for (Task task : tasks) {
-            assert task != null : "Task in list should not be null";
-            if (task.getDescription().toLowerCase().contains(lowerKeyword)) {
-                matchingTasks.add(task);
-            }
-        }
+        List<Task> matchingTasks = keywords.find(keyword, tasks);
         assert matchingTasks != null : "Matching task list should not be null";
+        if (isIndexOrderStale) {
+            matchingTasks.sort(Comparator.comparingInt(tasks::indexOf));
+        }
         return matchingTasks;
     }
 
+    /**
+     * Finds and returns all events whose time period overlaps the given period,
+     * in the order they appear in the list.
+     *
+     * @param from the start of the period.
+     * @param to   the end of the period.
+     * @return a list of events that overlap the period.
+     */
+    @Override
+    public List<Event> findOverlapping(LocalDateTime from, LocalDateTime to) {
+        assert from != null && to != null : "Period should not be null";
+        List<Event> overlapping = events.findOverlapping(from, to);
+        if (isIndexOrderStale) {
+            overlapping.sort(Comparator.comparingInt(tasks::indexOf));
+        }
+        return overlapping;
+    }
+
+    /**
+     * Finds and returns the deadlines and events that are not done and are due before the given time,
+     * earliest first. Events are due when they start.
+     *
+     * @param end the time, exclusive, before which the tasks are due.
+     * @return a list of tasks due before {@code end}, including overdue ones.
+     */
+    @Override
+    public List<Task> findDueBefore(LocalDateTime end) {
+        assert end != null : "End time should not be null";
+        return timeline.findBefore(end);
+    }
+
+    /**
+     * Finds and returns the next deadlines and events that are not done, earliest first.
+     *
+     * @param now   the current time.
+     * @param count the largest number of tasks to return.
+     * @return at most {@code count} tasks due at or after {@code now}.
+     */
+    @Override
+    public List<Task> findUpcoming(LocalDateTime now, int count) {
+        assert now != null : "Current time should not be null";
+        assert count >= 0 : "Number of upcoming tasks should not be negative";
+        return timeline.findFrom(now, count);
+    }
+
+    /**
+     * Finds and returns the deadlines that are not done and have passed, earliest first.
+     *
+     * @param now the current time.
+     * @return a list of deadlines due before {@code now}.
+     */
+    @Override
+    public List<Task> findOverdue(LocalDateTime now) {
+        assert now != null : "Current time should not be null";
+        return timeline.findDeadlinesBefore(now);
+    }
+
     /**
      * Detects scheduling conflicts for {@link Event} tasks.
+     * The clash reported is with the earliest event in the list, as only
+     * events overlapping the new one are looked at through the event index.
+     * Once the index is no longer in list order, the overlapping events are sorted to find it.
      *
      * @param newTask the new task being added
      * @throws IllegalArgumentException if the new event overlaps with an existing one
@@ -128,12 +401,82 @@ public class TaskList {
         }
 
         Event newEvent = (Event) newTask;
+        Event existing;
+        if (isIndexOrderStale) {
+            List<Event> overlapping = events.findOverlapping(newEvent.getFrom(), newEvent.getTo());
+            existing = overlapping.isEmpty() ? null
+                    : Collections.min(overlapping, Comparator.comparingInt(tasks::indexOf));
+        } else {
+            existing = events.findFirstOverlapping(newEvent.getFrom(), newEvent.getTo());
+        }
+        if (existing != null) {
+            assert eventsOverlap(newEvent, existing) : "Indexed event should overlap the new event";
+            throw new IllegalArgumentException(buildClashMessage(newEvent, existing));
+        }
+    }
+
+    /**
+     * Adds a task to the indexes kept alongside the list.
+     *
+     * @param task the task that was added to the list
+     */
+    private void index(Task task) {
+        assert task != null : "Task in list should not be null";
+        Task previous = tasksById.put(task.getId(), task);
+        assert previous == null : "Task IDs should be unique";
+        keywords.add(task);
+        timeline.add(task);
+        if (isEvent(task)) {
+            events.add((Event) task);
+        }
+    }
 
-        for (Task existing : tasks) {
-            if (isEvent(existing) && eventsOverlap(newEvent, (Event) existing)) {
-                throw new IllegalArgumentException(buildClashMessage(newEvent, (Event) existing));
+    /**
+     * Adds every task to new keyword and event indexes in list order,
+     * so that lookups through them no longer have to sort their results.
+     */
+    private void rebuildIndexOrder() {
+        keywords = new KeywordIndex();
+        events = new EventIntervalTree();
+        for (Task task : tasks) {
+            keywords.add(task);
+            if (isEvent(task)) {
+                events.add((Event) task);
             }
         }
+        isIndexOrderStale = false;
+    }
+
+    /**
+     * Returns whether {@link #findTasks(String)} finds the tasks through the keyword index alone,
+     * without scanning or sorting the list.
+     *
+     * @param keyword the search term.
+     * @return {@code true} if the keyword is long enough for the index and the index is in list order.
+     */
+    boolean isFoundThroughIndex(String keyword) {
+        return !isIndexOrderStale && KeywordIndex.isIndexed(keyword);
+    }
+
+    /**
+     * Returns whether lookups through the indexes have to sort their results back into list order.
+     */
+    boolean isIndexOrderStale() {
+        return isIndexOrderStale;
+    }
+
+    /**
+     * Removes a task from the indexes kept alongside the list.
+     *
+     * @param task the task that was removed from the list
+     */
+    private void unindex(Task task) {
+        tasksById.remove(task.getId());
+        keywords.remove(task);
+        timeline.remove(task);
+        if (isEvent(task)) {
+            events.remove((Event) task);
+        }
     }
 
     /**
@@ -156,16 +499,4 @@ public class TaskList {
     private boolean eventsOverlap(Event a, Event b) {
         return !(a.getTo().isBefore(b.getFrom()) || a.getFrom().isAfter(b.getTo()));
     }
-
-    /**
-     * Builds a descriptive error message for a schedule clash between two events.
-     *
-     * @param newEvent the new event being added
-     * @param existing the existing event it clashes with
-     * @return the formatted clash message
-     */
-    private String buildClashMessage(Event newEvent, Event existing) {
-        return "Mate, schedule clashes! " + newEvent + " overlaps with " + existing;
-    }
-
 }
@@ -0,0 +1,342 @@
+package siri.tasktypes;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.function.Predicate;
+
+/**
+ * A list of tasks that supports inserting and removing at any position in O(log n).
+ * <p>
+ * The tasks are kept in an implicit treap: a randomly balanced binary tree ordered by position,
+ * where every node knows the size of its subtree. Positional access walks down from the root,
+ * and every node also links to its parent, so the position of a task is found by walking up.
+ * Removing a task from the front therefore no longer shifts every later task, as it does in an
+ * {@link java.util.ArrayList}.
+ * </p>
+ * <p>
+ * Each task can only appear in the list once.
+ * </p>
+ */
+class TaskSequence extends AbstractList<Task> {
+    private final Map<Task, Node> nodes = new IdentityHashMap<>();
+    private final Random random = new Random();
+    private Node root;
+
+    private static class Node {
+        private Task task;
+        private final int priority;
+        private int size = 1;
+        private Node left;
+        private Node right;
+        private Node parent;
+
+        private Node(Task task, int priority) {
+            this.task = task;
+            this.priority = priority;
+        }
+    }
+
+    /**
+     * Creates an empty list.
+     */
+    TaskSequence() {
+    }
+
+    /**
+     * Creates a list holding the given tasks in the same order, in O(n).
+     *
+     * @param tasks the tasks to hold.
+     */
+    TaskSequence(List<Task> tasks) {
+        build(tasks);
+    }
+
+    @Override
+    public int size() {
+        return sizeOf(root);
+    }
+
+    @Override
+    public Task get(int index) {
+        return nodeAt(index).task;
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        Node node = nodeAt(index);
+        assert !nodes.containsKey(task) || nodes.get(task) == node : "Task should not be in the list twice";
+        Task previous = node.task;
+        nodes.remove(previous);
+        node.task = task;
+        nodes.put(task, node);
+        return previous;
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        assert !nodes.containsKey(task) : "Task should not be in the list twice";
+        Node node = new Node(task, random.nextInt());
+        nodes.put(task, node);
+        Node[] halves = split(root, index);
+        setRoot(merge(merge(halves[0], node), halves[1]));
+        modCount++;
+    }
+
+    @Override
+    public Task remove(int index) {
+        Node node = nodeAt(index);
+        Node[] halves = split(root, index);
+        Node[] rest = split(halves[1], 1);
+        assert rest[0] == node : "Split should isolate the removed node";
+        setRoot(merge(halves[0], rest[1]));
+        nodes.remove(node.task);
+        node.parent = null;
+        modCount++;
+        return node.task;
+    }
+
+    /**
+     * Returns the position of the task in O(log n) by walking up from its node.
+     */
+    @Override
+    public int indexOf(Object task) {
+        Node node = nodes.get(task);
+        if (node == null) {
+            return -1;
+        }
+        int index = sizeOf(node.left);
+        for (Node child = node, parent = node.parent; parent != null; child = parent, parent = parent.parent) {
+            if (parent.right == child) {
+                index += sizeOf(parent.left) + 1;
+            }
+        }
+        return index;
+    }
+
+    @Override
+    public int lastIndexOf(Object task) {
+        return indexOf(task);
+    }
+
+    @Override
+    public boolean contains(Object task) {
+        return nodes.containsKey(task);
+    }
+
+    @Override
+    public void clear() {
+        nodes.clear();
+        root = null;
+        modCount++;
+    }
+
+    /**
+     * Removes every task matching the filter in a single O(n) pass, by rebuilding the tree.
+     */
+    @Override
+    public boolean removeIf(Predicate<? super Task> filter) {
+        List<Task> kept = new ArrayList<>(size());
+        for (Task task : this) {
+            if (!filter.test(task)) {
+                kept.add(task);
+            }
+        }
+        if (kept.size() == size()) {
+            return false;
+        }
+        build(kept);
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Returns an iterator that visits the tasks in order, taking amortised O(1) per task.
+     */
+    @Override
+    public Iterator<Task> iterator() {
+        return new Iterator<>() {
+            private Node next = first(root);
+            private Node last;
+            private int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Task next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                last = next;
+                next = successor(next);
+                return last.task;
+            }
+
+            @Override
+            public void remove() {
+                if (last == null) {
+                    throw new IllegalStateException();
+                }
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                TaskSequence.this.remove(indexOf(last.task));
+                last = null;
+                expectedModCount = modCount;
+            }
+        };
+    }
+
+    private Node nodeAt(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        Node node = root;
+        while (true) {
+            int leftSize = sizeOf(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    private static Node first(Node node) {
+        while (node != null && node.left != null) {
+            node = node.left;
+        }
+        return node;
+    }
+
+    private static Node successor(Node node) {
+        if (node.right != null) {
+            return first(node.right);
+        }
+        Node child = node;
+        Node parent = node.parent;
+        while (parent != null && parent.right == child) {
+            child = parent;
+            parent = parent.parent;
+        }
+        return parent;
+    }
+
+    /**
+     * Builds the tree from the tasks in O(n), as a Cartesian tree of random priorities.
+     */
+    private void build(List<Task> tasks) {
+        nodes.clear();
+        Deque<Node> rightSpine = new ArrayDeque<>();
+        for (Task task : tasks) {
+            assert !nodes.containsKey(task) : "Task should not be in the list twice";
+            Node node = new Node(task, random.nextInt());
+            nodes.put(task, node);
+            Node lastPopped = null;
+            while (!rightSpine.isEmpty() && rightSpine.peek().priority < node.priority) {
+                lastPopped = rightSpine.pop();
+            }
+            node.left = lastPopped;
+            if (!rightSpine.isEmpty()) {
+                rightSpine.peek().right = node;
+            }
+            rightSpine.push(node);
+        }
+        setRoot(rightSpine.isEmpty() ? null : rightSpine.peekLast());
+        fixSubtree(root);
+    }
+
+    /**
+     * Recomputes the sizes and parent links below a freshly built node.
+     */
+    private static void fixSubtree(Node node) {
+        if (node == null) {
+            return;
+        }
+        fixSubtree(node.left);
+        fixSubtree(node.right);
+        update(node);
+    }
+
+    private void setRoot(Node node) {
+        root = node;
+        if (root != null) {
+            root.parent = null;
+        }
+    }
+
+    private static int sizeOf(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static void update(Node node) {
+        node.size = 1 + sizeOf(node.left) + sizeOf(node.right);
+        if (node.left != null) {
+            node.left.parent = node;
+        }
+        if (node.right != null) {
+            node.right.parent = node;
+        }
+    }
+
+    /**
+     * Splits the tree into its first {@code count} tasks and the rest.
+     */
+    private static Node[] split(Node tree, int count) {
+        if (tree == null) {
+            return new Node[] {null, null};
+        }
+        if (sizeOf(tree.left) >= count) {
+            Node[] halves = split(tree.left, count);
+            tree.left = halves[1];
+            update(tree);
+            halves[1] = tree;
+            return halves;
+        }
+        Node[] halves = split(tree.right, count - sizeOf(tree.left) - 1);
+        tree.right = halves[0];
+        update(tree);
+        halves[0] = tree;
+        return halves;
+    }
+
+    /**
+     * Joins two trees, with every task of {@code left} before every task of {@code right}.
+     */
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+}
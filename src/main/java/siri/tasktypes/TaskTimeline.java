@@ -0,0 +1,129 @@
+package siri.tasktypes;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Keeps the pending deadlines and events of a {@link TaskList} sorted by time.
+ * <p>
+ * Deadlines are keyed by their due time and events by their start time. Tasks that are
+ * done are left out, so that queries about what is due never have to skip them.
+ * Every query looks up its start in O(log n) and then only visits the k tasks it returns.
+ * </p>
+ *
+ * @see TaskList#findDueBefore(LocalDateTime)
+ * @see TaskList#findUpcoming(LocalDateTime, int)
+ * @see TaskList#findOverdue(LocalDateTime)
+ */
+class TaskTimeline {
+    private final TreeMap<LocalDateTime, Set<Task>> deadlines = new TreeMap<>();
+    private final TreeMap<LocalDateTime, Set<Task>> eventStarts = new TreeMap<>();
+
+    /**
+     * Adds the task to the timeline if it is a pending deadline or event.
+     *
+     * @param task the task to add.
+     */
+    void add(Task task) {
+        if (task.isDone()) {
+            return;
+        }
+        if (task instanceof Deadline) {
+            deadlines.computeIfAbsent(((Deadline) task).getBy(), time -> new LinkedHashSet<>()).add(task);
+        } else if (task instanceof Event) {
+            eventStarts.computeIfAbsent(((Event) task).getFrom(), time -> new LinkedHashSet<>()).add(task);
+        }
+    }
+
+    /**
+     * Removes the task from the timeline, if it is in it.
+     *
+     * @param task the task to remove.
+     */
+    void remove(Task task) {
+        if (task instanceof Deadline) {
+            removeAt(deadlines, ((Deadline) task).getBy(), task);
+        } else if (task instanceof Event) {
+            removeAt(eventStarts, ((Event) task).getFrom(), task);
+        }
+    }
+
+    private static void removeAt(Map<LocalDateTime, Set<Task>> times, LocalDateTime time, Task task) {
+        Set<Task> tasksAtTime = times.get(time);
+        if (tasksAtTime != null && tasksAtTime.remove(task) && tasksAtTime.isEmpty()) {
+            times.remove(time);
+        }
+    }
+
+    /**
+     * Returns the pending deadlines and events due before the given time, earliest first.
+     *
+     * @param end the time, exclusive, before which the tasks are due.
+     * @return the deadlines due and the events starting before {@code end}.
+     */
+    List<Task> findBefore(LocalDateTime end) {
+        return merge(deadlines.headMap(end, false), eventStarts.headMap(end, false), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the first pending deadlines and events due at or after the given time, earliest first.
+     *
+     * @param start the time, inclusive, from which to look.
+     * @param limit the largest number of tasks to return.
+     * @return at most {@code limit} tasks.
+     */
+    List<Task> findFrom(LocalDateTime start, int limit) {
+        return merge(deadlines.tailMap(start, true), eventStarts.tailMap(start, true), limit);
+    }
+
+    /**
+     * Returns the pending deadlines due before the given time, earliest first.
+     *
+     * @param now the current time.
+     * @return the deadlines that were due before {@code now}.
+     */
+    List<Task> findDeadlinesBefore(LocalDateTime now) {
+        return merge(deadlines.headMap(now, false), Collections.emptyNavigableMap(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Merges two ranges of the timeline into one list sorted by time.
+     * Deadlines come before events at the same time, and tasks at the same time keep the order
+     * they were added in.
+     */
+    private static List<Task> merge(NavigableMap<LocalDateTime, Set<Task>> first,
+            NavigableMap<LocalDateTime, Set<Task>> second, int limit) {
+        List<Task> merged = new ArrayList<>();
+        Iterator<Map.Entry<LocalDateTime, Set<Task>>> firstEntries = first.entrySet().iterator();
+        Iterator<Map.Entry<LocalDateTime, Set<Task>>> secondEntries = second.entrySet().iterator();
+        Map.Entry<LocalDateTime, Set<Task>> a = firstEntries.hasNext() ? firstEntries.next() : null;
+        Map.Entry<LocalDateTime, Set<Task>> b = secondEntries.hasNext() ? secondEntries.next() : null;
+        while ((a != null || b != null) && merged.size() < limit) {
+            if (b == null || (a != null && !a.getKey().isAfter(b.getKey()))) {
+                addUpTo(merged, a.getValue(), limit);
+                a = firstEntries.hasNext() ? firstEntries.next() : null;
+            } else {
+                addUpTo(merged, b.getValue(), limit);
+                b = secondEntries.hasNext() ? secondEntries.next() : null;
+            }
+        }
+        return merged;
+    }
+
+    private static void addUpTo(List<Task> merged, Set<Task> tasks, int limit) {
+        for (Task task : tasks) {
+            if (merged.size() == limit) {
+                return;
+            }
+            merged.add(task);
+        }
+    }
+}
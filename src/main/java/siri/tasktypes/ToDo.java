@@ -25,23 +25,33 @@ public class ToDo extends Task {
 
 
     /**
-     * Converts the task to a representation suited for file storage.
+     * Creates a new todo with the same description.
+     *
+     * @return a new task that is not done and has no ID.
+     */
+    @Override
+    protected Task createCopy() {
+        return new ToDo(description);
+    }
+
+    /**
+     * Builds the representation of the task for file storage.
      *
      * @return a string representation of the task for file storage.
      * @see Task#fromFileString(String)
      */
     @Override
-    public String toFileString() {
-        return "T | " + (isDone ? "1" : "0") + " | " + description;
+    protected String renderFileString() {
+        return "T | " + (isDone ? "1" : "0") + " | " + getFileDescription() + getIdField();
     }
 
     /**
-     * Returns a string representation of the task.
+     * Builds the string representation of the task.
      *
      * @return a formatted string showing the task's type, status icon and description.
      */
     @Override
-    public String toString() {
-        return "[T]" + super.toString();
+    protected String renderString() {
+        return "[T]" + super.renderString();
     }
 }
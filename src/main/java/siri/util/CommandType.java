@@ -0,0 +1,69 @@
+package siri.util;
+
+/**
+ * Represents the commands that Siri understands, identified by their keyword.
+ *
+ * @see ParsedCommand#getType()
+ */
+public enum CommandType {
+    BYE("bye"),
+    LIST("list", true),
+    MARK("mark"),
+    UNMARK("unmark"),
+    TODO("todo"),
+    EVENT("event"),
+    DEADLINE("deadline"),
+    DELETE("delete"),
+    FIND("find", true),
+    OVERLAP("overlap", true),
+    EXPORT("export"),
+    DUE("due", true),
+    UPCOMING("upcoming", true),
+    OVERDUE("overdue", true),
+    STATS("stats"),
+    UNDO("undo"),
+    REDO("redo"),
+    /** Any keyword that is not one of the above. */
+    UNKNOWN("");
+
+    private static final CommandType[] VALUES = values();
+
+    private final String keyword;
+    private final boolean isReadOnly;
+
+    CommandType(String keyword) {
+        this(keyword, false);
+    }
+
+    CommandType(String keyword, boolean isReadOnly) {
+        this.keyword = keyword;
+        this.isReadOnly = isReadOnly;
+    }
+
+    /**
+     * Returns whether the command only reads the task list, so that it can run alongside other commands.
+     */
+    public boolean isReadOnly() {
+        return isReadOnly;
+    }
+
+    /**
+     * Returns the command whose keyword is the given part of the input, ignoring case.
+     * The keyword is compared in place, without copying it out of the input.
+     *
+     * @param input the input containing the keyword.
+     * @param start the index of the first character of the keyword.
+     * @param end   the index after the last character of the keyword.
+     * @return the matching command, or {@link #UNKNOWN} if there is none.
+     */
+    static CommandType of(String input, int start, int end) {
+        int length = end - start;
+        for (CommandType type : VALUES) {
+            if (type != UNKNOWN && type.keyword.length() == length
+                    && input.regionMatches(true, start, type.keyword, 0, length)) {
+                return type;
+            }
+        }
+        return UNKNOWN;
+    }
+}
@@ -0,0 +1,98 @@
+package siri.util;
+
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Reads and writes dates and times in the {@code yyyy-MM-dd HHmm} layout used by commands and the task file.
+ * <p>
+ * That layout has a fixed width, so the common case is parsed and formatted by reading and writing the
+ * digits at their known positions, which is several times faster than a {@link DateTimeFormatter}
+ * and allocates nothing but the result. Anything the fast path does not recognise, such as a date
+ * that does not exist or a year with more than four digits, is handed to {@link #FORMAT} instead,
+ * so the results and the {@link DateTimeParseException}s thrown are exactly those of the formatter.
+ * </p>
+ */
+public class DateTimes {
+    /** The formatter for the layout, used for any input the fast path does not handle. */
+    public static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
+
+    private static final int LENGTH = "yyyy-MM-dd HHmm".length();
+
+    private DateTimes() {
+    }
+
+    /**
+     * Parses a date and time in the format "yyyy-MM-dd HHmm".
+     *
+     * @param text the text to parse.
+     * @return the parsed date and time.
+     * @throws DateTimeParseException if the text is not a valid date and time in that format.
+     */
+    public static LocalDateTime parse(CharSequence text) {
+        if (text.length() == LENGTH && text.charAt(4) == '-' && text.charAt(7) == '-' && text.charAt(10) == ' ') {
+            int year = parseDigits(text, 0, 4);
+            int month = parseDigits(text, 5, 2);
+            int day = parseDigits(text, 8, 2);
+            int hour = parseDigits(text, 11, 2);
+            int minute = parseDigits(text, 13, 2);
+            if (year >= 1 && month >= 1 && month <= 12 && day >= 1
+                    && hour >= 0 && hour <= 23 && minute >= 0 && minute <= 59
+                    && day <= Month.of(month).length(Year.isLeap(year))) {
+                return LocalDateTime.of(year, month, day, hour, minute);
+            }
+        }
+        return LocalDateTime.parse(text, FORMAT);
+    }
+
+    /**
+     * Formats a date and time as "yyyy-MM-dd HHmm", dropping any seconds.
+     *
+     * @param dateTime the date and time to format.
+     * @return the formatted date and time.
+     */
+    public static String format(LocalDateTime dateTime) {
+        int year = dateTime.getYear();
+        if (year < 1 || year > 9999) {
+            return dateTime.format(FORMAT);
+        }
+        char[] chars = new char[LENGTH];
+        putDigits(chars, 0, 4, year);
+        chars[4] = '-';
+        putDigits(chars, 5, 2, dateTime.getMonthValue());
+        chars[7] = '-';
+        putDigits(chars, 8, 2, dateTime.getDayOfMonth());
+        chars[10] = ' ';
+        putDigits(chars, 11, 2, dateTime.getHour());
+        putDigits(chars, 13, 2, dateTime.getMinute());
+        return new String(chars);
+    }
+
+    /**
+     * Returns the number written with the given count of ASCII digits, or -1 if any of them is not a digit.
+     */
+    private static int parseDigits(CharSequence text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Writes the number as the given count of digits, padded with leading zeros.
+     */
+    private static void putDigits(char[] chars, int start, int count, int value) {
+        for (int i = start + count - 1; i >= start; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package siri.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps track of where Siri spends its time.
+ * <p>
+ * Every command is timed in up to four phases, each with its own {@link LatencyHistogram}
+ * for each type of command: parsing the input, executing it against the task list,
+ * rendering the response to the output, and persisting the changes. Storage adds the time
+ * taken to load the tasks and to write the log and snapshots, along with the number of tasks
+ * loaded and bytes written. Histograms are only created once something is recorded in them.
+ * </p>
+ * <p>
+ * Recording is thread-safe and never locks, so a single instance can be shared by every
+ * thread of a {@code SiriServer}.
+ * </p>
+ */
+public class Metrics {
+    private static final Phase[] PHASES = Phase.values();
+    private static final CommandType[] COMMAND_TYPES = CommandType.values();
+
+    /**
+     * The phases in which a command is timed.
+     */
+    public enum Phase {
+        /** Splitting the input into the command and its arguments. */
+        PARSE,
+        /** Running the command against the task list, including building its response. */
+        EXECUTE,
+        /** Writing the response to the output, for responses that are streamed. */
+        RENDER,
+        /** Saving the changes made by the command. */
+        PERSIST
+    }
+
+    private final AtomicReferenceArray<LatencyHistogram> commandHistograms =
+            new AtomicReferenceArray<>(COMMAND_TYPES.length * PHASES.length);
+    private final LatencyHistogram loadHistogram = new LatencyHistogram();
+    private final LatencyHistogram logWriteHistogram = new LatencyHistogram();
+    private final LatencyHistogram snapshotWriteHistogram = new LatencyHistogram();
+    private final AtomicLong tasksLoaded = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final StringInterner descriptions;
+
+    /**
+     * Constructs an empty set of metrics.
+     */
+    public Metrics() {
+        this(null);
+    }
+
+    /**
+     * Constructs an empty set of metrics whose report also shows how often task descriptions were shared.
+     *
+     * @param descriptions the table through which task descriptions are shared.
+     */
+    public Metrics(StringInterner descriptions) {
+        this.descriptions = descriptions;
+    }
+
+    /**
+     * Records how long a phase of a command took.
+     *
+     * @param type  the type of the command.
+     * @param phase the phase that was timed.
+     * @param nanos the duration in nanoseconds.
+     */
+    public void recordCommand(CommandType type, Phase phase, long nanos) {
+        int slot = type.ordinal() * PHASES.length + phase.ordinal();
+        LatencyHistogram histogram = commandHistograms.get(slot);
+        if (histogram == null) {
+            commandHistograms.compareAndSet(slot, null, new LatencyHistogram());
+            histogram = commandHistograms.get(slot);
+        }
+        histogram.record(nanos);
+    }
+
+    /**
+     * Records a load of the task list.
+     *
+     * @param nanos     the duration in nanoseconds.
+     * @param taskCount the number of tasks loaded.
+     */
+    public void recordLoad(long nanos, int taskCount) {
+        loadHistogram.record(nanos);
+        tasksLoaded.addAndGet(taskCount);
+    }
+
+    /**
+     * Records an append to the log of changes.
+     *
+     * @param nanos the duration in nanoseconds.
+     * @param bytes the number of bytes written.
+     */
+    public void recordLogWrite(long nanos, long bytes) {
+        logWriteHistogram.record(nanos);
+        bytesWritten.addAndGet(bytes);
+    }
+
+    /**
+     * Records a write of a whole snapshot of the task list.
+     *
+     * @param nanos the duration in nanoseconds.
+     * @param bytes the number of bytes written.
+     */
+    public void recordSnapshotWrite(long nanos, long bytes) {
+        snapshotWriteHistogram.record(nanos);
+        bytesWritten.addAndGet(bytes);
+    }
+
+    /**
+     * Returns the number of tasks loaded so far.
+     */
+    public long getTasksLoaded() {
+        return tasksLoaded.get();
+    }
+
+    /**
+     * Returns the number of bytes written to the storage files so far.
+     */
+    public long getBytesWritten() {
+        return bytesWritten.get();
+    }
+
+    /**
+     * Returns a table of the percentiles of every phase that has been timed, in microseconds,
+     * followed by the storage counters and how often task descriptions were shared.
+     *
+     * @return the report, one histogram on each line.
+     */
+    public String getReport() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-20s %8s %10s %10s %10s %10s%n", "timings (us)", "count", "p50", "p90", "p99", "max"));
+        for (CommandType type : COMMAND_TYPES) {
+            for (Phase phase : PHASES) {
+                LatencyHistogram histogram = commandHistograms.get(type.ordinal() * PHASES.length + phase.ordinal());
+                if (histogram != null) {
+                    appendRow(sb, type.name().toLowerCase() + " " + phase.name().toLowerCase(), histogram);
+                }
+            }
+        }
+        appendRow(sb, "storage load", loadHistogram);
+        appendRow(sb, "storage log write", logWriteHistogram);
+        appendRow(sb, "storage snapshot", snapshotWriteHistogram);
+        sb.append("tasks loaded: ").append(tasksLoaded.get()).append(System.lineSeparator());
+        sb.append("bytes written: ").append(bytesWritten.get()).append(System.lineSeparator());
+        if (descriptions != null) {
+            sb.append(String.format("descriptions shared: %d of %d (%.1f%%)%n", descriptions.getHits(),
+                    descriptions.getHits() + descriptions.getMisses(), descriptions.getHitRate() * 100));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes the report to a text file, replacing any earlier report.
+     *
+     * @param path the file to write.
+     * @throws IOException if the file cannot be written.
+     */
+    public void export(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.writeString(path, getReport(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Appends one line of the report, skipping histograms that are still empty.
+     */
+    private static void appendRow(StringBuilder sb, String name, LatencyHistogram histogram) {
+        if (histogram.getCount() == 0) {
+            return;
+        }
+        sb.append(String.format("%-20s %8d %10.1f %10.1f %10.1f %10.1f%n", name, histogram.getCount(),
+                histogram.getPercentile(50) / 1e3, histogram.getPercentile(90) / 1e3,
+                histogram.getPercentile(99) / 1e3, histogram.getMax() / 1e3));
+    }
+}
@@ -0,0 +1,93 @@
+package siri.util;
+
+/**
+ * Represents the part of a task list that a {@code list} or {@code find} command asks to see.
+ * <p>
+ * A page is chosen with the {@code --page <n>} and {@code --limit <n>} options, parsed by
+ * {@link Parser#parsePage(String)}. Without either option, every task is shown.
+ * </p>
+ */
+public class Page {
+    /** Number of tasks on a page when only {@code --page} is given. */
+    public static final int DEFAULT_LIMIT = 20;
+
+    private static final Page ALL = new Page(1, Integer.MAX_VALUE, "");
+
+    private final int number;
+    private final int limit;
+    private final String remainder;
+
+    /**
+     * Creates a page of the given size.
+     *
+     * @param number    the page number, starting from 1.
+     * @param limit     the largest number of tasks on the page.
+     * @param remainder the arguments that came before the options.
+     */
+    Page(int number, int limit, String remainder) {
+        assert number > 0 : "Page number should be positive";
+        assert limit > 0 : "Page limit should be positive";
+        assert remainder != null : "Remaining arguments should not be null";
+        this.number = number;
+        this.limit = limit;
+        this.remainder = remainder;
+    }
+
+    /**
+     * Returns a page that holds every task.
+     *
+     * @param remainder the arguments that came with the command.
+     * @return the page.
+     */
+    static Page all(String remainder) {
+        return remainder.isEmpty() ? ALL : new Page(1, Integer.MAX_VALUE, remainder);
+    }
+
+    /**
+     * Returns whether this page holds every task.
+     */
+    public boolean isAll() {
+        return number == 1 && limit == Integer.MAX_VALUE;
+    }
+
+    /**
+     * Returns the page number, starting from 1.
+     */
+    public int getNumber() {
+        return number;
+    }
+
+    /**
+     * Returns the command's arguments without the paging options, such as the keyword of {@code find}.
+     */
+    public String getRemainder() {
+        return remainder;
+    }
+
+    /**
+     * Returns the index of the first task on this page.
+     */
+    public int fromIndex() {
+        return (int) Math.min(Integer.MAX_VALUE, (long) (number - 1) * limit);
+    }
+
+    /**
+     * Returns the index just past the last task on this page.
+     *
+     * @param size the number of tasks in the whole list.
+     * @return the end index, at most {@code size}.
+     */
+    public int toIndex(int size) {
+        return (int) Math.min(size, (long) fromIndex() + limit);
+    }
+
+    /**
+     * Returns the number of pages needed to show every task.
+     *
+     * @param size the number of tasks in the whole list.
+     * @return the number of pages, at least 1.
+     */
+    public int pageCount(int size) {
+        return Math.max(1, (int) (((long) size + limit - 1) / limit));
+    }
+}
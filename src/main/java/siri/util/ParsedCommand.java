@@ -0,0 +1,59 @@
+package siri.util;
+
+/**
+ * Represents a user command split into its keyword and arguments.
+ * <p>
+ * The command only stores offsets into the original input, so parsing it copies no text.
+ * The keyword and arguments are only copied out when they are asked for.
+ * A single instance can be reused for every command through {@link Parser#parse(String, ParsedCommand)}.
+ * </p>
+ */
+public class ParsedCommand {
+    private String input = "";
+    private CommandType type = CommandType.UNKNOWN;
+    private int keywordStart;
+    private int keywordEnd;
+    private int argumentsStart;
+    private int argumentsEnd;
+
+    /**
+     * Points this command at the given ranges of the input.
+     */
+    void set(String input, CommandType type, int keywordStart, int keywordEnd, int argumentsStart, int argumentsEnd) {
+        this.input = input;
+        this.type = type;
+        this.keywordStart = keywordStart;
+        this.keywordEnd = keywordEnd;
+        this.argumentsStart = argumentsStart;
+        this.argumentsEnd = argumentsEnd;
+    }
+
+    /**
+     * Returns the command identified by the keyword.
+     */
+    public CommandType getType() {
+        return type;
+    }
+
+    /**
+     * Returns the keyword as it was entered.
+     */
+    public String getKeyword() {
+        return input.substring(keywordStart, keywordEnd);
+    }
+
+    /**
+     * Returns whether anything was entered after the keyword.
+     */
+    public boolean hasArguments() {
+        return keywordEnd < argumentsEnd;
+    }
+
+    /**
+     * Returns everything entered after the space following the keyword, or an empty string if nothing was.
+     * Trailing whitespace is removed, but any further leading spaces are kept.
+     */
+    public String getArguments() {
+        return hasArguments() ? input.substring(argumentsStart, argumentsEnd) : "";
+    }
+}
@@ -3,6 +3,13 @@ package siri.util;
 import siri.exceptions.SiriException;
 import siri.exceptions.InvalidCommandException;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Utility class for parsing user commands and extracting structured information.
  * <p>
@@ -10,11 +17,16 @@ import siri.exceptions.InvalidCommandException;
  * command types like deadlines and events. It ensures commands are valid
  * and throws {@link SiriException} or {@link InvalidCommandException} on errors.
  * </p>
+ * <p>
+ * Commands are scanned once by index instead of being split with regular expressions,
+ * so parsing allocates little more than the strings it returns.
+ * </p>
  *
  * @see SiriException
  * @see InvalidCommandException
  */
 public class Parser {
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
     /**
      * Parses a raw user command into an array containing the command keyword
@@ -26,38 +38,94 @@ public class Parser {
      * @throws SiriException if the command is invalid or empty
      */
     public static String[] parseCommand(String command) throws SiriException {
-        validateCommand(command);
-        return splitCommand(command);
+        ParsedCommand parsedCommand = parse(command, new ParsedCommand());
+        if (!parsedCommand.hasArguments()) {
+            return new String[] {parsedCommand.getKeyword()};
+        }
+        return new String[] {parsedCommand.getKeyword(), parsedCommand.getArguments()};
     }
 
     /**
-     * Validates that the command is not null or empty.
+     * Parses a raw user command into the given command, replacing what it held before.
+     * Leading and trailing whitespace is ignored, the keyword ends at the first space,
+     * and the arguments are everything after that space.
      *
-     * @param command the command string to validate
-     * @throws InvalidCommandException if the command is null or empty
+     * @param command       the raw input command string
+     * @param parsedCommand the command to fill in
+     * @return {@code parsedCommand}, pointing at the keyword and arguments of the input
+     * @throws InvalidCommandException if the command is empty
      */
-    private static void validateCommand(String command) throws InvalidCommandException {
+    public static ParsedCommand parse(String command, ParsedCommand parsedCommand) throws InvalidCommandException {
         assert command != null : "Command passed to Parser.parse should not be null";
-        if (command.trim().isEmpty()) {
+        int start = 0;
+        int end = command.length();
+        while (start < end && command.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && command.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
             throw new InvalidCommandException("Nothing was entered!");
         }
+
+        int keywordEnd = command.indexOf(' ', start);
+        if (keywordEnd < 0 || keywordEnd >= end) {
+            keywordEnd = end;
+        }
+        int argumentsStart = Math.min(keywordEnd + 1, end);
+        parsedCommand.set(command, CommandType.of(command, start, keywordEnd), start, keywordEnd, argumentsStart, end);
+        return parsedCommand;
     }
 
     /**
-     * Splits the command string into the keyword and the arguments.
+     * Splits the text around every occurrence of the given markers, like {@link String#split(String)}
+     * with the markers as alternatives, including the removal of trailing empty parts.
+     * Where several markers match at the same position, the first one given is used.
      *
-     * @param command the command string to split
-     * @return a string array containing the command keyword and optional arguments
+     * @param text    the text to split
+     * @param markers the literal markers to split around
+     * @return the parts of the text between the markers
      */
-    private static String[] splitCommand(String command) {
-        return command.trim().split(" ", 2);
+    private static String[] splitAround(String text, String... markers) {
+        List<String> parts = new ArrayList<>(markers.length + 1);
+        int partStart = 0;
+        int i = 0;
+        while (i < text.length()) {
+            String marker = markerAt(text, i, markers);
+            if (marker == null) {
+                i++;
+                continue;
+            }
+            parts.add(text.substring(partStart, i));
+            i += marker.length();
+            partStart = i;
+        }
+        if (parts.isEmpty()) {
+            return new String[] {text};
+        }
+        parts.add(text.substring(partStart));
+        int size = parts.size();
+        while (size > 0 && parts.get(size - 1).isEmpty()) {
+            size--;
+        }
+        return parts.subList(0, size).toArray(new String[0]);
+    }
+
+    private static String markerAt(String text, int index, String[] markers) {
+        for (String marker : markers) {
+            if (text.startsWith(marker, index)) {
+                return marker;
+            }
+        }
+        return null;
     }
 
     /**
      * Parses an event string in the format: "description /from start /to end"
      */
     public static String[] parseEvent(String arguments) throws SiriException {
-        String[] parts = arguments.split("/from|/to");
+        String[] parts = splitAround(arguments, "/from", "/to");
         if (parts.length < 3) {
             throw new InvalidCommandException("Please specify the event duration using /from and /to.");
         }
@@ -75,7 +143,10 @@ public class Parser {
      * Parses a deadline string in the format: "description /by date"
      */
     public static String[] parseDeadline(String arguments) throws SiriException {
-        String[] parts = arguments.split("/by", 2);
+        int marker = arguments.indexOf("/by");
+        String[] parts = marker < 0
+                ? new String[] {arguments}
+                : new String[] {arguments.substring(0, marker), arguments.substring(marker + "/by".length())};
         if (parts.length < 2 || parts[1].isEmpty()) {
             throw new InvalidCommandException(
                     "Please specify the deadline using /by. Example: deadline return book /by 2025-12-29 1800"
@@ -90,4 +161,177 @@ public class Parser {
         assert parts.length == 2 : "Parsed deadline should contain exactly 2 parts - description and by";
         return parts;
     }
+
+    /**
+     * Parses a time period string in the format: "/from start /to end"
+     *
+     * @param arguments the period arguments
+     * @return a two-element array containing the start and end of the period
+     * @throws SiriException if the period is missing, malformed or ends before it starts
+     */
+    public static LocalDateTime[] parsePeriod(String arguments) throws SiriException {
+        String[] parts = splitAround(arguments, "/from", "/to");
+        if (parts.length != 3 || !parts[0].trim().isEmpty()) {
+            throw new InvalidCommandException(
+                    "Please specify the period using /from and /to. Example: overlap /from 2025-12-29 1800 /to 2025-12-29 2000"
+            );
+        }
+
+        LocalDateTime from = parseDateTime(parts[1].trim());
+        LocalDateTime to = parseDateTime(parts[2].trim());
+        if (to.isBefore(from)) {
+            throw new InvalidCommandException("Heyyy your end time cannot be before start time.");
+        }
+        return new LocalDateTime[] {from, to};
+    }
+
+    /**
+     * Parses a date and time in the format: "yyyy-MM-dd HHmm"
+     *
+     * @param dateTime the date and time string
+     * @return the parsed date and time
+     * @throws InvalidCommandException if the string is not in the expected format
+     */
+    public static LocalDateTime parseDateTime(String dateTime) throws InvalidCommandException {
+        try {
+            return DateTimes.parse(dateTime);
+        } catch (DateTimeParseException e) {
+            throw new InvalidCommandException(
+                    "Please enter a valid date & time format (yyyy-MM-dd HHmm). Example: 2025-12-29 1800");
+        }
+    }
+
+    /**
+     * Parses the end of a "due" query, given either as a date in the format "yyyy-MM-dd"
+     * or as a date and time in the format "yyyy-MM-dd HHmm".
+     *
+     * @param arguments the date, or date and time
+     * @return the time before which tasks are due: the start of the next day for a date,
+     *         or the next minute for a date and time
+     * @throws InvalidCommandException if the argument is missing or not in either format
+     */
+    public static LocalDateTime parseDueDate(String arguments) throws InvalidCommandException {
+        String dueDate = arguments.trim();
+        if (dueDate.isEmpty()) {
+            throw new InvalidCommandException("Please specify a date. Example: due 2025-12-29");
+        }
+        if (dueDate.indexOf(' ') >= 0) {
+            return parseDateTime(dueDate).plusMinutes(1);
+        }
+        try {
+            return LocalDate.parse(dueDate, DATE_FORMAT).plusDays(1).atStartOfDay();
+        } catch (DateTimeParseException e) {
+            throw new InvalidCommandException("Please enter a valid date format (yyyy-MM-dd). Example: due 2025-12-29");
+        }
+    }
+
+    /**
+     * Parses a positive number of tasks to show.
+     *
+     * @param arguments    the number, or an empty string for the default
+     * @param defaultCount the number to use if none is given
+     * @return the number of tasks
+     * @throws InvalidCommandException if the argument is not a positive number
+     */
+    public static int parseCount(String arguments, int defaultCount) throws InvalidCommandException {
+        String count = arguments.trim();
+        if (count.isEmpty()) {
+            return defaultCount;
+        }
+        try {
+            int parsedCount = Integer.parseInt(count);
+            if (parsedCount > 0) {
+                return parsedCount;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below together with non-positive numbers.
+        }
+        throw new InvalidCommandException("Please key in a positive number of tasks. Example: upcoming 5");
+    }
+
+    /**
+     * Parses the {@code --page <n>} and {@code --limit <n>} options that may end the
+     * arguments of a {@code list} or {@code find} command.
+     * Only options at the very end count, so anything before them, such as a keyword
+     * containing {@code --}, is left exactly as typed.
+     * Giving only {@code --page} shows {@link Page#DEFAULT_LIMIT} tasks on each page,
+     * and giving only {@code --limit} shows the first page.
+     *
+     * @param arguments the arguments of the command, with any options at the end
+     * @return the requested page, holding the arguments before the options
+     * @throws InvalidCommandException if an option at the end has no positive number
+     */
+    public static Page parsePage(String arguments) throws InvalidCommandException {
+        int number = 0;
+        int limit = 0;
+        int optionsStart = arguments.length();
+        while (true) {
+            int valueEnd = skipWhitespaceBackward(arguments, optionsStart);
+            int valueStart = previousWhitespace(arguments, valueEnd);
+            String value = arguments.substring(valueStart, valueEnd);
+            int nameEnd = skipWhitespaceBackward(arguments, valueStart);
+            int nameStart = previousWhitespace(arguments, nameEnd);
+            String name = arguments.substring(nameStart, nameEnd);
+            if (isPageOption(value)) {
+                throw new InvalidCommandException(
+                        "Please give " + value + " a positive number. Example: list --page 2 --limit 10");
+            }
+            if (!isPageOption(name)) {
+                break;
+            }
+            int parsed = parsePositive(value);
+            if (parsed == 0) {
+                throw new InvalidCommandException(
+                        "Please give " + name + " a positive number. Example: list --page 2 --limit 10");
+            }
+            if (name.equals("--page") && number == 0) {
+                number = parsed;
+            } else if (name.equals("--limit") && limit == 0) {
+                limit = parsed;
+            }
+            optionsStart = nameStart;
+        }
+        if (optionsStart == arguments.length()) {
+            return Page.all(arguments);
+        }
+        return new Page(number == 0 ? 1 : number, limit == 0 ? Page.DEFAULT_LIMIT : limit,
+                arguments.substring(0, skipWhitespaceBackward(arguments, optionsStart)));
+    }
+
+    private static boolean isPageOption(String text) {
+        return text.equals("--page") || text.equals("--limit");
+    }
+
+    /**
+     * Returns the number in the text if it is a positive integer, or 0 otherwise.
+     */
+    private static int parsePositive(String text) {
+        try {
+            return Math.max(0, Integer.parseInt(text));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Returns the index just after the last whitespace before {@code end}, or 0 if there is none.
+     */
+    private static int previousWhitespace(String text, int end) {
+        int pos = end;
+        while (pos > 0 && !Character.isWhitespace(text.charAt(pos - 1))) {
+            pos--;
+        }
+        return pos;
+    }
+
+    /**
+     * Returns the index just after the last non-whitespace before {@code end}, or 0 if there is none.
+     */
+    private static int skipWhitespaceBackward(String text, int end) {
+        int pos = end;
+        while (pos > 0 && Character.isWhitespace(text.charAt(pos - 1))) {
+            pos--;
+        }
+        return pos;
+    }
 }
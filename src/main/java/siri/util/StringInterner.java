@@ -0,0 +1,86 @@
+package siri.util;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lets equal strings share one instance, such as the descriptions of recurring tasks.
+ * <p>
+ * The table has a fixed number of slots, each holding a weak reference to the last string
+ * hashed there, so it never grows and never keeps a string alive once nothing else uses it.
+ * A string whose slot holds a different string simply takes the slot over, so rarely repeated
+ * strings make way for common ones. Unlike {@link String#intern()}, lookups are a single
+ * array read and the table can be measured: it counts how often a string was already present.
+ * </p>
+ * <p>
+ * Lookups are thread-safe and never lock, so tasks can be loaded on several threads at once.
+ * </p>
+ */
+public class StringInterner {
+    private final AtomicReferenceArray<WeakReference<String>> slots;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructs an empty table.
+     *
+     * @param capacity the number of slots, rounded up to a power of two.
+     */
+    public StringInterner(int capacity) {
+        assert capacity > 0 : "Interner capacity should be positive";
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        slots = new AtomicReferenceArray<>(size);
+        mask = size - 1;
+    }
+
+    /**
+     * Returns the instance already in the table that equals the given string,
+     * or puts the string in the table and returns it if there is none.
+     *
+     * @param value the string to look up, or {@code null}.
+     * @return a string equal to {@code value}.
+     */
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        int hash = value.hashCode();
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        WeakReference<String> reference = slots.get(slot);
+        String interned = reference == null ? null : reference.get();
+        if (value.equals(interned)) {
+            hits.increment();
+            return interned;
+        }
+        misses.increment();
+        slots.set(slot, new WeakReference<>(value));
+        return value;
+    }
+
+    /**
+     * Returns the number of lookups that found an equal string already in the table.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that put their string in the table.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the share of lookups that found an equal string already in the table.
+     *
+     * @return the hit rate from 0 to 1, or 0 if nothing was looked up.
+     */
+    public double getHitRate() {
+        long hitCount = getHits();
+        long total = hitCount + getMisses();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+}
@@ -1,6 +1,10 @@
 package siri.util;
 
+import siri.tasktypes.Event;
 import siri.tasktypes.Task;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 /**
@@ -10,6 +14,10 @@ import java.util.List;
  * (e.g., welcome, goodbye, errors, task updates) that are displayed
  * in either the CLI or GUI.
  * </p>
+ * <p>
+ * Task lists can also be written straight to an {@link Appendable}, such as the
+ * standard output, so that long lists are never held in memory as one string.
+ * </p>
  */
 public class Ui {
 
@@ -41,6 +49,27 @@ public class Ui {
         return errorMessage;
     }
 
+    /**
+     * Returns the message shown at start-up when the saved changes could only be loaded in part.
+     *
+     * @param log  the name of the log holding the change that could not be loaded
+     * @param line the line of that change in the log
+     * @return warning message string
+     */
+    public String getCorruptLogMessage(String log, int line) {
+        return "Some of your latest changes could not be loaded, so I stopped at line " + line + " of " + log
+                + ".\nA copy of the log is kept in " + log + ".corrupt.";
+    }
+
+    /**
+     * Returns the message shown when a command fails in a way Siri did not expect.
+     *
+     * @return failure message string
+     */
+    public String getCommandFailedMessage() {
+        return "Sorry, something went wrong while running that command.";
+    }
+
     /**
      * Returns a formatted list of all tasks.
      *
@@ -49,11 +78,35 @@ public class Ui {
      *         or a message stating the list is empty
      */
     public String getTaskListMessage(List<Task> tasks) {
+        return getTaskListMessage(tasks, Page.all(""));
+    }
+
+    /**
+     * Returns a formatted page of the task list.
+     *
+     * @param tasks list of tasks
+     * @param page  the page to show
+     * @return formatted message containing the tasks on the page
+     */
+    public String getTaskListMessage(List<Task> tasks, Page page) {
+        return render(sb -> appendTaskListMessage(sb, tasks, page));
+    }
+
+    /**
+     * Writes a formatted page of the task list to the output, one task at a time.
+     *
+     * @param out   where the message is written
+     * @param tasks list of tasks
+     * @param page  the page to show
+     * @throws IOException if the output cannot be written
+     */
+    public void appendTaskListMessage(Appendable out, List<Task> tasks, Page page) throws IOException {
         assert tasks != null : "Task list should not be null";
         if (tasks.isEmpty()) {
-            return "Your task list is empty!";
+            out.append("Your task list is empty!");
+            return;
         }
-        return buildTaskListMessage("Here are the tasks in your list:", tasks);
+        appendTaskList(out, "Here are the tasks in your list:", tasks, page);
     }
 
     /**
@@ -68,6 +121,18 @@ public class Ui {
         return "Okay. I've marked this task as " + (isMarked ? "done:\n" : "not done yet:\n") + task;
     }
 
+    /**
+     * Returns a message when several tasks are marked or unmarked by one command.
+     *
+     * @param count    the number of tasks selected
+     * @param isMarked true if the tasks are marked as done, false if unmarked
+     * @return formatted confirmation message
+     */
+    public String getTasksMarkedMessage(int count, boolean isMarked) {
+        assert count >= 0 : "Number of marked tasks should be non-negative";
+        return "Okay. I've marked " + count + " task(s) as " + (isMarked ? "done." : "not done yet.");
+    }
+
     /**
      * Returns a message when a new task is added.
      *
@@ -94,6 +159,19 @@ public class Ui {
         return "Noted. I've removed this task:\n" + task + "\nNow you have " + totalTasks + " task(s) in the list.";
     }
 
+    /**
+     * Returns a message when several tasks are deleted by one command.
+     *
+     * @param count      the number of tasks deleted
+     * @param totalTasks total number of tasks after deletion
+     * @return formatted confirmation message
+     */
+    public String getTasksDeletedMessage(int count, int totalTasks) {
+        assert count >= 0 : "Number of deleted tasks should be non-negative";
+        assert totalTasks >= 0 : "Total tasks should be non-negative";
+        return "Noted. I've removed " + count + " task(s).\nNow you have " + totalTasks + " task(s) in the list.";
+    }
+
     /**
      * Returns a message showing all tasks that match a given keyword.
      *
@@ -103,12 +181,109 @@ public class Ui {
      *         a message indicating no matches found
      */
     public String getMatchingTasksMessage(List<Task> matchingTasks, String keyword) {
+        return getMatchingTasksMessage(matchingTasks, keyword, Page.all(""));
+    }
+
+    /**
+     * Returns a formatted page of the tasks that match a given keyword.
+     *
+     * @param matchingTasks list of matching tasks
+     * @param keyword       keyword used to filter tasks
+     * @param page          the page to show
+     * @return formatted message with the matching tasks on the page
+     */
+    public String getMatchingTasksMessage(List<Task> matchingTasks, String keyword, Page page) {
+        return render(sb -> appendMatchingTasksMessage(sb, matchingTasks, keyword, page));
+    }
+
+    /**
+     * Writes a formatted page of the tasks that match a given keyword to the output, one task at a time.
+     *
+     * @param out           where the message is written
+     * @param matchingTasks list of matching tasks
+     * @param keyword       keyword used to filter tasks
+     * @param page          the page to show
+     * @throws IOException if the output cannot be written
+     */
+    public void appendMatchingTasksMessage(Appendable out, List<Task> matchingTasks, String keyword, Page page)
+            throws IOException {
         assert matchingTasks != null : "Matching tasks list should not be null";
         assert keyword != null : "Keyword should not be null";
         if (matchingTasks.isEmpty()) {
-            return "No tasks found containing: " + keyword;
+            out.append("No tasks found containing: ").append(keyword);
+            return;
         }
-        return buildTaskListMessage("Here are the matching tasks in your list:", matchingTasks);
+        appendTaskList(out, "Here are the matching tasks in your list:", matchingTasks, page);
+    }
+
+    /**
+     * Returns a message showing all events that overlap a time period.
+     *
+     * @param events list of overlapping events
+     * @return formatted message with the events or
+     *         a message indicating the period is free
+     */
+    public String getOverlappingEventsMessage(List<Event> events) {
+        assert events != null : "Overlapping events list should not be null";
+        if (events.isEmpty()) {
+            return "You have no events during that period!";
+        }
+        return buildTaskListMessage("Here are the events during that period:", events);
+    }
+
+    /**
+     * Returns a message when the tasks are exported to a text file.
+     *
+     * @param totalTasks number of tasks exported
+     * @param path       location of the exported file
+     * @return formatted confirmation message
+     */
+    public String getTasksExportedMessage(int totalTasks, String path) {
+        assert totalTasks >= 0 : "Total tasks should be non-negative";
+        return "Done! I've exported " + totalTasks + " task(s) to " + path;
+    }
+
+    /**
+     * Returns a message showing the timings recorded so far.
+     *
+     * @param report the timings, as a table.
+     * @return formatted message with the timings
+     */
+    public String getStatsMessage(String report) {
+        assert report != null : "Stats report should not be null";
+        return "Here is where my time went so far:\n" + report;
+    }
+
+    /**
+     * Returns a message when the timings are exported to a text file.
+     *
+     * @param path location of the exported file
+     * @return formatted confirmation message
+     */
+    public String getStatsExportedMessage(String path) {
+        return "Done! I've written my stats to " + path;
+    }
+
+    /**
+     * Returns a message when a change to the task list is undone.
+     *
+     * @param description what the change was, such as {@code deleting 3 tasks}
+     * @param totalTasks  total number of tasks afterwards
+     * @return formatted confirmation message
+     */
+    public String getUndoMessage(String description, int totalTasks) {
+        return "Okay. I've undone " + description + "\nNow you have " + totalTasks + " task(s) in the list.";
+    }
+
+    /**
+     * Returns a message when a change that was undone is made again.
+     *
+     * @param description what the change was, such as {@code deleting 3 tasks}
+     * @param totalTasks  total number of tasks afterwards
+     * @return formatted confirmation message
+     */
+    public String getRedoMessage(String description, int totalTasks) {
+        return "Okay. I've redone " + description + "\nNow you have " + totalTasks + " task(s) in the list.";
     }
 
     /**
@@ -118,14 +293,104 @@ public class Ui {
         System.out.println(getWelcomeMessage());
     }
 
+    /**
+     * Returns a message listing the tasks due before a date.
+     *
+     * @param dueTasks the deadlines and events due, earliest first.
+     * @return the formatted message.
+     */
+    public String getDueTasksMessage(List<Task> dueTasks) {
+        assert dueTasks != null : "Due task list should not be null";
+        if (dueTasks.isEmpty()) {
+            return "Nothing is due by then!";
+        }
+        return buildTaskListMessage("Here are the tasks due by then:", dueTasks);
+    }
+
+    /**
+     * Returns a message listing the next tasks that are due.
+     *
+     * @param upcomingTasks the next deadlines and events, earliest first.
+     * @return the formatted message.
+     */
+    public String getUpcomingTasksMessage(List<Task> upcomingTasks) {
+        assert upcomingTasks != null : "Upcoming task list should not be null";
+        if (upcomingTasks.isEmpty()) {
+            return "You have nothing coming up!";
+        }
+        return buildTaskListMessage("Here are your upcoming tasks:", upcomingTasks);
+    }
+
+    /**
+     * Returns a message listing the deadlines that have passed.
+     *
+     * @param overdueTasks the overdue deadlines, earliest first.
+     * @return the formatted message.
+     */
+    public String getOverdueTasksMessage(List<Task> overdueTasks) {
+        assert overdueTasks != null : "Overdue task list should not be null";
+        if (overdueTasks.isEmpty()) {
+            return "Yay! None of your deadlines have passed!";
+        }
+        return buildTaskListMessage("These deadlines have passed:", overdueTasks);
+    }
+
     /**
      * Method to format a list of tasks for display.
+     * Each task is followed by its ID, which can be used instead of its number.
+     */
+    private String buildTaskListMessage(String header, List<? extends Task> tasks) {
+        return render(sb -> appendTaskList(sb, header, tasks, Page.all("")));
+    }
+
+    /**
+     * Returns the text written by the given message writer.
      */
-    private String buildTaskListMessage(String header, List<Task> tasks) {
-        StringBuilder sb = new StringBuilder(header).append("\n");
-        for (int i = 0; i < tasks.size(); i++) {
-            sb.append((i + 1)).append(".").append(tasks.get(i)).append("\n");
+    private static String render(MessageWriter writer) {
+        StringBuilder sb = new StringBuilder();
+        try {
+            writer.write(sb);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringBuilder never throws
         }
         return sb.toString();
     }
+
+    /**
+     * Writes a message to an output that may throw {@link IOException}.
+     */
+    private interface MessageWriter {
+        void write(Appendable out) throws IOException;
+    }
+
+    /**
+     * Writes the tasks on a page of a list, numbered by their position in the whole list,
+     * followed by the page number unless the page holds every task.
+     */
+    private void appendTaskList(Appendable out, String header, List<? extends Task> tasks, Page page)
+            throws IOException {
+        int from = page.fromIndex();
+        int to = page.toIndex(tasks.size());
+        int pageCount = page.pageCount(tasks.size());
+        if (from >= to) {
+            out.append("There are only ").append(String.valueOf(pageCount)).append(" page(s)!");
+            return;
+        }
+
+        out.append(header).append("\n");
+        int number = from + 1;
+        for (Task task : tasks.subList(from, to)) {
+            out.append(String.valueOf(number++)).append(".").append(task.toString());
+            if (task.getId() != 0) {
+                out.append(" (#").append(String.valueOf(task.getId())).append(")");
+            }
+            out.append("\n");
+        }
+        if (!page.isAll()) {
+            out.append("Page ").append(String.valueOf(page.getNumber())).append(" of ")
+                    .append(String.valueOf(pageCount)).append(" (tasks ").append(String.valueOf(from + 1))
+                    .append("-").append(String.valueOf(to)).append(" of ")
+                    .append(String.valueOf(tasks.size())).append(")\n");
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,116 @@
+package siri;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import siri.tasktypes.Task;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link LiveSearch} class.
+ */
+public class LiveSearchTest {
+
+    /** Temporary directory holding the storage files of the task list. */
+    @TempDir
+    Path tempDir;
+
+    /** Stands in for the thread that runs the commands of the main window. */
+    private final ExecutorService commandExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "siri-command");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Verifies that results for a keyword being typed and then deleted match those of {@code find},
+     * that going back to a shorter keyword reuses its results, and that changing the list discards them,
+     * for both task list layouts.
+     *
+     * @throws Exception if a command fails unexpectedly
+     */
+    @Test
+    void searchTest() throws Exception {
+        search(tempDir.resolve("siri.txt"));
+        System.setProperty("siri.tasks.layout", "columnar");
+        try {
+            search(tempDir.resolve("siri-columnar.txt"));
+        } finally {
+            System.clearProperty("siri.tasks.layout");
+        }
+    }
+
+    private void search(Path file) throws Exception {
+        Siri siri = new Siri(file.toString());
+        String[] descriptions = {"Standup", "pay rent", "stand-up comedy", "gym", "READ a book", "caf\u00e9 stand"};
+        for (int i = 0; i < 300; i++) {
+            siri.performTodoAction(descriptions[i % descriptions.length] + " " + i);
+        }
+        LiveSearch search = new LiveSearch(siri, commandExecutor);
+
+        List<Task> stand = null;
+        for (String keyword : new String[] {"s", "st", "stan", "stand", "stand-", "stand", "sta", "re", "read a"}) {
+            List<Task> matches = search.search(keyword, 0, null);
+            assertEquals(toFileStrings(siri.findTasks(keyword)), toFileStrings(matches));
+            if (keyword.equals("stand")) {
+                if (stand != null) {
+                    assertSame(stand, matches);
+                }
+                stand = matches;
+            }
+        }
+
+        siri.getResponse("mark 1");
+        assertEquals(toFileStrings(siri.findTasks("stand")), toFileStrings(search.search("stand", 0, null)));
+        assertTrue(search.search("stand", 0, null).get(0).isDone());
+    }
+
+    private static List<String> toFileStrings(List<Task> tasks) {
+        return tasks.stream().map(Task::toFileString).collect(Collectors.toList());
+    }
+
+    /**
+     * Verifies that a burst of keystrokes only reports the results of the last one,
+     * and that parsing only accepts {@code find} commands without paging options.
+     *
+     * @throws Exception if the search does not finish in time
+     */
+    @Test
+    void debounceTest() throws Exception {
+        Siri siri = new Siri(tempDir.resolve("siri.txt").toString());
+        siri.performTodoAction("pay rent");
+        siri.performTodoAction("pay bills");
+        LiveSearch search = new LiveSearch(siri, commandExecutor);
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<String> reported = new AtomicReference<>();
+        for (String input : new String[] {"find p", "find pa", "find pay", "find pay r"}) {
+            String keyword = LiveSearch.parseKeyword(input);
+            search.update(keyword, (generation, matches, isComplete) -> {
+                reported.set(keyword + "=" + matches.size());
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        Thread.sleep(LiveSearch.DEBOUNCE_MILLIS * 3);
+        assertEquals("pay r=1", reported.get());
+        search.shutdown();
+
+        assertNull(LiveSearch.parseKeyword("find "));
+        assertNull(LiveSearch.parseKeyword("find rent --page 2"));
+        assertNull(LiveSearch.parseKeyword("todo find rent"));
+        assertEquals("rent", LiveSearch.parseKeyword("FIND rent "));
+        assertEquals("a --b", LiveSearch.parseKeyword("find a --b"));
+    }
+}
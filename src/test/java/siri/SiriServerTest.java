@@ -0,0 +1,132 @@
+package siri;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import siri.tasktypes.AbstractTaskList;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link SiriServer} class, run against a server on the loopback address.
+ */
+public class SiriServerTest {
+
+    /** Temporary directory holding the storage files of the shared task list. */
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Verifies that commands sent by many clients at once are all run against
+     * the one shared task list, and that the list is saved when the server stops.
+     *
+     * @throws Exception if a request fails unexpectedly
+     */
+    @Test
+    void concurrentClientsTest() throws Exception {
+        String file = tempDir.resolve("siri.txt").toString();
+        SiriServer server = new SiriServer(new Siri(file, true),
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        server.start();
+        HttpClient client = HttpClient.newHttpClient();
+        URI uri = URI.create("http://localhost:" + server.getPort() + "/command");
+        ExecutorService clients = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<HttpResponse<String>>> responses = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                HttpRequest request = HttpRequest.newBuilder(uri)
+                        .POST(HttpRequest.BodyPublishers.ofString("todo task " + i + "\n")).build();
+                responses.add(clients.submit(() -> client.send(request, HttpResponse.BodyHandlers.ofString())));
+            }
+            for (Future<HttpResponse<String>> response : responses) {
+                assertEquals(200, response.get().statusCode());
+                assertTrue(response.get().body().startsWith("Got it. I've added this task:"));
+            }
+
+            HttpResponse<String> bye = client.send(HttpRequest.newBuilder(uri)
+                    .POST(HttpRequest.BodyPublishers.ofString("bye")).build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals("Bye. Hope to see you again soon!", bye.body());
+            HttpResponse<String> get = client.send(HttpRequest.newBuilder(uri).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(405, get.statusCode());
+        } finally {
+            clients.shutdown();
+            server.stop();
+        }
+
+        assertEquals(200, new Siri(file).tasks.size());
+    }
+
+    /**
+     * Verifies that clients cannot make the server write to a file of their choosing.
+     *
+     * @throws Exception if a request fails unexpectedly
+     */
+    @Test
+    void fileTargetTest() throws Exception {
+        String file = tempDir.resolve("siri.txt").toString();
+        SiriServer server = new SiriServer(new Siri(file, true),
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        server.start();
+        HttpClient client = HttpClient.newHttpClient();
+        URI uri = URI.create("http://localhost:" + server.getPort() + "/command");
+        Path target = tempDir.resolve("elsewhere.txt");
+        try {
+            for (String command : List.of("export " + target, "stats export " + target)) {
+                HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri)
+                        .POST(HttpRequest.BodyPublishers.ofString(command)).build(),
+                        HttpResponse.BodyHandlers.ofString());
+                assertTrue(response.body().contains("Please leave out the file name."));
+            }
+        } finally {
+            server.stop();
+        }
+        assertFalse(Files.exists(target));
+    }
+
+    /**
+     * Verifies that a body holding more than one line is rejected without changing the task list.
+     *
+     * @throws Exception if a request fails unexpectedly
+     */
+    @Test
+    void multiLineTest() throws Exception {
+        String file = tempDir.resolve("siri.txt").toString();
+        SiriServer server = new SiriServer(new Siri(file, true),
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        server.start();
+        HttpClient client = HttpClient.newHttpClient();
+        URI uri = URI.create("http://localhost:" + server.getPort() + "/command");
+        try {
+            client.send(HttpRequest.newBuilder(uri).POST(HttpRequest.BodyPublishers.ofString("todo read a book\n"))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            for (String command : List.of("todo a\nb", "todo a\rb\n", "mark 1\ndelete 1")) {
+                HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri)
+                        .POST(HttpRequest.BodyPublishers.ofString(command)).build(),
+                        HttpResponse.BodyHandlers.ofString());
+                assertEquals(400, response.statusCode());
+            }
+        } finally {
+            server.stop();
+        }
+
+        AbstractTaskList reloaded = new Siri(file).tasks;
+        assertEquals(1, reloaded.size());
+        assertEquals("T | 0 | read a book | 1", reloaded.get(0).toFileString());
+    }
+}
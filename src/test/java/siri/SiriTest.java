@@ -2,11 +2,19 @@ package siri;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import siri.exceptions.InvalidCommandException;
+import siri.tasktypes.AbstractTaskList;
 import siri.tasktypes.Deadline;
-import siri.tasktypes.TaskList;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -22,6 +30,10 @@ public class SiriTest {
     /** Instance of {@link Siri} used for testing. */
     private Siri siri;
 
+    /** Temporary directory holding the storage files of tests that save tasks. */
+    @TempDir
+    Path tempDir;
+
     /**
      * Sets up a new {@link Siri} instance before each test.
      * <p>
@@ -43,7 +55,7 @@ public class SiriTest {
     @Test
     void deadlineTest1() throws Exception {
         siri.performDeadlineAction("submit assignment /by 2025-12-29 1800");
-        TaskList tasks = siri.tasks;
+        AbstractTaskList tasks = siri.tasks;
         assertEquals(1, tasks.size());
         assertTrue(tasks.get(0) instanceof Deadline);
         assertEquals("submit assignment", tasks.get(0).getDescription());
@@ -74,5 +86,200 @@ public class SiriTest {
         );
         assertTrue(exception.getMessage().contains("Please enter a valid date & time format (yyyy-MM-dd HHmm). Example: /by 2025-12-29 1800"));
     }
-}
 
+    /**
+     * Verifies that a batch script runs every command up to {@code bye}
+     * and that its changes are saved once the script ends.
+     *
+     * @throws Exception if an I/O error occurs
+     */
+    @Test
+    void batchTest() throws Exception {
+        String file = tempDir.resolve("siri.txt").toString();
+        Siri batchSiri = new Siri(file);
+        String script = String.join(System.lineSeparator(), "todo read book", "blah", "mark 1", "bye", "todo ignored");
+        StringWriter out = new StringWriter();
+
+        int commandCount = batchSiri.runBatch(new BufferedReader(new StringReader(script)), out, 2);
+        assertEquals(4, commandCount);
+        assertTrue(out.toString().contains("Sorry :((( I don't know what that means"));
+
+        AbstractTaskList reloaded = new Siri(file).tasks;
+        assertEquals(1, reloaded.size());
+        assertEquals("X", reloaded.get(0).getStatusIcon());
+    }
+
+    /**
+     * Verifies that {@code --batch} needs a file and that {@code --commit-every} needs a positive integer.
+     */
+    @Test
+    void batchArgumentsTest() {
+        assertEquals(0, Siri.parseCommitInterval(new String[] {"--batch", "script.txt"}));
+        assertEquals(100, Siri.parseCommitInterval(new String[] {"--batch", "-", "--commit-every", "100"}));
+        assertEquals(-1, Siri.parseCommitInterval(new String[] {"--batch"}));
+        assertEquals(-1, Siri.parseCommitInterval(new String[] {"--batch", "script.txt", "--commit-every"}));
+        assertEquals(-1, Siri.parseCommitInterval(new String[] {"--batch", "script.txt", "--commit-every", "0"}));
+        assertEquals(-1, Siri.parseCommitInterval(new String[] {"--batch", "script.txt", "--commit-every", "ten"}));
+    }
+
+    /**
+     * Verifies that ranges, lists and {@code done} select several tasks at once,
+     * and that the changes survive a restart.
+     *
+     * @throws Exception if the commands fail unexpectedly
+     */
+    @Test
+    void bulkTest() throws Exception {
+        String file = tempDir.resolve("siri.txt").toString();
+        Siri bulkSiri = new Siri(file);
+        for (int i = 0; i < 10; i++) {
+            bulkSiri.performTodoAction("task " + i);
+        }
+
+        bulkSiri.performMarkAction("1,3,5-7", true);
+        bulkSiri.performDeleteAction("2-3");
+        assertEquals(8, bulkSiri.tasks.size());
+        bulkSiri.performDeleteAction("done");
+        assertEquals(4, bulkSiri.tasks.size());
+        bulkSiri.getResponse("list");
+
+        AbstractTaskList reloaded = new Siri(file).tasks;
+        assertEquals(4, reloaded.size());
+        assertEquals("task 3", reloaded.get(0).getDescription());
+        assertEquals("task 7", reloaded.get(1).getDescription());
+    }
+
+    /**
+     * Verifies that {@code list} and {@code find} show only the requested page,
+     * numbering the tasks by their position in the whole list.
+     *
+     * @throws Exception if a command fails unexpectedly
+     */
+    @Test
+    void pageTest() throws Exception {
+        Siri pagedSiri = new Siri(tempDir.resolve("siri.txt").toString());
+        StringBuilder script = new StringBuilder();
+        for (int i = 1; i <= 25; i++) {
+            script.append("todo task ").append(i).append("\n");
+        }
+        script.append("list --page 2 --limit 10\nfind task --page 3\n");
+        StringWriter out = new StringWriter();
+        pagedSiri.runBatch(new BufferedReader(new StringReader(script.toString())), out, 0);
+
+        String output = out.toString();
+        assertTrue(output.contains("11.[T][ ] task 11 (#11)"));
+        assertTrue(output.contains("Page 2 of 3 (tasks 11-20 of 25)"));
+        assertTrue(output.contains("There are only 2 page(s)!"));
+        assertFalse(output.contains("10.[T][ ] task 10 (#10)"));
+    }
+
+    /**
+     * Verifies that undoing restores deleted tasks to their old positions and reverses marks,
+     * that redoing repeats them, and that both survive a restart.
+     *
+     * @throws Exception if a command fails unexpectedly
+     */
+    @Test
+    void undoTest() throws Exception {
+        String file = tempDir.resolve("siri.txt").toString();
+        Siri undoSiri = new Siri(file);
+        for (int i = 0; i < 6; i++) {
+            undoSiri.performTodoAction("task " + i);
+        }
+        undoSiri.performMarkAction("1-3", true);
+        undoSiri.performDeleteAction("2,4-5");
+        undoSiri.getResponse("undo");
+        assertEquals("task 3", undoSiri.tasks.get(3).getDescription());
+        assertEquals(undoSiri.tasks.getAll(), undoSiri.tasks.findTasks("task"));
+        undoSiri.getResponse("undo");
+        undoSiri.getResponse("redo");
+        undoSiri.getResponse("todo task 6");
+        assertTrue(undoSiri.getResponse("redo").contains("There is nothing to redo!"));
+        undoSiri.getResponse("undo");
+        undoSiri.getResponse("list");
+
+        AbstractTaskList reloaded = new Siri(file).tasks;
+        assertEquals(6, reloaded.size());
+        assertTrue(reloaded.get(2).isDone());
+        assertFalse(reloaded.get(3).isDone());
+        assertEquals("task 1", reloaded.get(1).getDescription());
+        assertEquals(2, reloaded.get(1).getId());
+    }
+
+    /**
+     * Verifies that a description containing the field separator survives a restart,
+     * and that the ID of a deleted task is not given out again, before and after a snapshot.
+     *
+     * @throws Exception if a command fails unexpectedly
+     */
+    @Test
+    void idTest() throws Exception {
+        String file = tempDir.resolve("siri.txt").toString();
+        Siri idSiri = new Siri(file);
+        idSiri.getResponse("todo pay rent | urgent");
+        idSiri.getResponse("todo call mum");
+        idSiri.getResponse("delete 2");
+
+        Siri restarted = new Siri(file);
+        assertEquals("pay rent | urgent", restarted.tasks.get(0).getDescription());
+        restarted.getResponse("todo buy milk");
+        assertEquals(3, restarted.tasks.get(1).getId());
+        restarted.getResponse("delete 2");
+        restarted.getResponse("export");
+
+        Siri compacted = new Siri(file);
+        compacted.getResponse("todo buy bread");
+        assertEquals(1, compacted.tasks.get(0).getId());
+        assertEquals(4, compacted.tasks.get(1).getId());
+    }
+
+    /**
+     * Verifies that tasks added to a columnar task list are given their IDs,
+     * so that they can be undone and are saved with them.
+     *
+     * @throws Exception if a command fails unexpectedly
+     */
+    @Test
+    void columnarTest() throws Exception {
+        String file = tempDir.resolve("siri.txt").toString();
+        System.setProperty("siri.tasks.layout", "columnar");
+        try {
+            Siri columnarSiri = new Siri(file);
+            columnarSiri.getResponse("todo read a book");
+            columnarSiri.getResponse("todo call mum");
+            columnarSiri.getResponse("undo");
+            columnarSiri.getResponse("todo buy milk");
+            assertEquals(2, columnarSiri.tasks.size());
+
+            AbstractTaskList reloaded = new Siri(file).tasks;
+            assertEquals(1, reloaded.get(0).getId());
+            assertEquals(3, reloaded.get(1).getId());
+            assertEquals("buy milk", reloaded.get(1).getDescription());
+        } finally {
+            System.clearProperty("siri.tasks.layout");
+        }
+    }
+
+    /**
+     * Verifies that {@code stats} reports the phases timed for each command,
+     * and that {@code stats export} writes the same report to a file.
+     *
+     * @throws Exception if a command fails unexpectedly
+     */
+    @Test
+    void statsTest() throws Exception {
+        Siri statsSiri = new Siri(tempDir.resolve("siri.txt").toString());
+        statsSiri.getResponse("todo read book");
+        statsSiri.getResponse("find book");
+
+        String stats = statsSiri.getResponse("stats");
+        assertTrue(stats.contains("todo parse"));
+        assertTrue(stats.contains("todo persist"));
+        assertTrue(stats.contains("find execute"));
+        assertTrue(stats.contains("storage log write"));
+
+        Path export = tempDir.resolve("stats.txt");
+        statsSiri.getResponse("stats export " + export);
+        assertTrue(Files.readString(export).contains("tasks loaded: 0"));
+    }
+}
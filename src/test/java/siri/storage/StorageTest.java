@@ -0,0 +1,439 @@
+package siri.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import siri.tasktypes.Task;
+import siri.tasktypes.TaskList;
+import siri.tasktypes.ToDo;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link Storage} class.
+ * <p>
+ * These tests verify that logged changes survive a restart, that the log
+ * is compacted into the snapshot, and that an interrupted snapshot
+ * replacement is recovered correctly.
+ * </p>
+ */
+public class StorageTest {
+
+    /** Temporary directory holding the storage files of each test. */
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Verifies that committed changes are appended to the log without
+     * rewriting the snapshot, and are replayed by {@code load}.
+     *
+     * @throws Exception if an I/O error occurs
+     */
+    @Test
+    void journalTest1_replayOnLoad() throws Exception {
+        Path file = tempDir.resolve("siri.txt");
+        Storage storage = new Storage(file.toString());
+        List<Task> tasks = storage.load();
+
+        tasks.add(new ToDo("read a book"));
+        storage.recordAdd(tasks.get(0));
+        tasks.add(new ToDo("return a book"));
+        storage.recordAdd(tasks.get(1));
+        tasks.get(1).markDone();
+        storage.recordMark(1, true);
+        tasks.remove(0);
+        storage.recordDelete(0);
+        storage.commit(tasks);
+        storage.close();
+
+        assertEquals(0, Files.size(file));
+        List<Task> reloaded = new Storage(file.toString()).load();
+        assertEquals(1, reloaded.size());
+        assertEquals("T | 1 | return a book", reloaded.get(0).toFileString());
+    }
+
+    /**
+     * Verifies that the log is folded into the snapshot once it passes the threshold.
+     *
+     * @throws Exception if an I/O error occurs
+     */
+    @Test
+    void journalTest2_compaction() throws Exception {
+        Path file = tempDir.resolve("siri.txt");
+        Storage storage = new Storage(file.toString(), StorageOptions.defaults().setCompactionThreshold(1));
+        List<Task> tasks = storage.load();
+
+        tasks.add(new ToDo("read a book"));
+        storage.recordAdd(tasks.get(0));
+        storage.commit(tasks);
+        storage.close();
+
+        assertEquals(List.of("T | 0 | read a book"), Files.readAllLines(file));
+        assertFalse(Files.exists(tempDir.resolve("siri.txt.log")));
+        assertFalse(Files.exists(tempDir.resolve("siri.txt.log.old")));
+        assertEquals(1, new Storage(file.toString()).load().size());
+    }
+
+    /**
+     * Verifies that a temporary snapshot is discarded while the retired log
+     * still exists, and promoted once the retired log is gone.
+     *
+     * @throws Exception if an I/O error occurs
+     */
+    @Test
+    void journalTest3_recoverInterruptedSnapshot() throws Exception {
+        Path file = tempDir.resolve("siri.txt");
+        Files.write(file, List.of("T | 0 | read a book"));
+        Files.write(tempDir.resolve("siri.txt.log.old"), List.of("ADD | T | 0 | return a book"));
+        Files.write(tempDir.resolve("siri.txt.tmp"), List.of("T | 0 | read a"));
+
+        List<Task> tasks = new Storage(file.toString()).load();
+        assertEquals(2, tasks.size());
+        assertFalse(Files.exists(tempDir.resolve("siri.txt.tmp")));
+
+        Files.delete(tempDir.resolve("siri.txt.log.old"));
+        Files.write(tempDir.resolve("siri.txt.tmp"), List.of("T | 0 | read a book", "T | 0 | return a book"));
+        tasks = new Storage(file.toString()).load();
+        assertEquals(2, tasks.size());
+        assertTrue(Files.readAllLines(file).contains("T | 0 | return a book"));
+    }
+
+    /**
+     * Verifies that a partially written last record is skipped during replay.
+     *
+     * @throws Exception if an I/O error occurs
+     */
+    @Test
+    void journalTest4_tornRecordIgnored() throws Exception {
+        Path file = tempDir.resolve("siri.txt");
+        Files.write(file, new ArrayList<String>());
+        Files.writeString(tempDir.resolve("siri.txt.log"), "ADD | T | 0 | read a book\nMARK | ");
+
+        List<Task> tasks = new Storage(file.toString()).load();
+        assertEquals(1, tasks.size());
+        assertEquals(" ", tasks.get(0).getStatusIcon());
+    }
+
+    /**
+     * Verifies that replay stops at a record that cannot be applied, so that later records
+     * are not applied to the wrong tasks, and that the log is kept for inspection.
+     *
+     * @throws Exception if an I/O error occurs
+     */
+    @Test
+    void journalTest5_replayStopsAtCorruptRecord() throws Exception {
+        Path file = tempDir.resolve("siri.txt");
+        Files.write(file, new ArrayList<String>());
+        List<String> records = List.of("ADD | T | 0 | read a book", "ADD | T | 0 | return a book",
+                "DELETE | x", "MARK | 0");
+        Files.write(tempDir.resolve("siri.txt.log"), records);
+
+        Storage storage = new Storage(file.toString());
+        List<Task> tasks = storage.load();
+        assertEquals(2, tasks.size());
+        assertEquals(" ", tasks.get(0).getStatusIcon());
+        assertEquals(tempDir.resolve("siri.txt.log"), storage.getCorruptLog());
+        assertEquals(3, storage.getCorruptLine());
+        assertEquals(records, Files.readAllLines(tempDir.resolve("siri.txt.log.corrupt")));
+
+        storage.commit(tasks);
+        assertFalse(Files.exists(tempDir.resolve("siri.txt.log")));
+        Storage reloaded = new Storage(file.toString());
+        assertEquals(2, reloaded.load().size());
+        assertEquals(null, reloaded.getCorruptLog());
+    }
+
+    /**
+     * Verifies that a commit without recorded changes writes nothing,
+     * even when every commit rewrites the whole file.
+     *
+     * @throws Exception if an I/O error occurs
+     */
+    @Test
+    void unchangedCommitTest() throws Exception {
+        Path file = tempDir.resolve("siri.txt");
+        Storage storage = new Storage(file.toString(), StorageOptions.defaults().setJournaled(false));
+        List<Task> tasks = storage.load();
+        Files.delete(file);
+
+        storage.commit(tasks);
+        assertFalse(Files.exists(file));
+
+        tasks.add(new ToDo("read a book"));
+        storage.recordAdd(tasks.get(0));
+        storage.commit(tasks);
+        assertEquals(List.of("T | 0 | read a book"), Files.readAllLines(file));
+    }
+
+    /**
+     * Verifies that a text file is migrated to the binary format on first load,
+     * and that binary snapshots keep every field of every task type.
+     *
+     * @throws Exception if an I/O error occurs
+     */
+    @Test
+    void binaryTest1_migrationRoundTrip() throws Exception {
+        Path file = tempDir.resolve("siri.txt");
+        List<String> lines = List.of(
+                "T | 1 | read a book",
+                "D | 0 | return book \u00e9 | 2026-12-29 1800",
+                "E | 1 | networking session | 2026-12-29 1800 | 2026-12-29 1900");
+        Files.write(file, lines);
+        StorageOptions options = StorageOptions.defaults().setFormat(SnapshotFormat.BINARY);
+
+        List<Task> migrated = new Storage(file.toString(), options).load();
+        assertEquals(3, migrated.size());
+        assertTrue(Files.exists(tempDir.resolve("siri.bin")));
+
+        Files.delete(file);
+        List<Task> reloaded = new Storage(file.toString(), options).load();
+        List<String> reloadedLines = new ArrayList<>();
+        for (Task task : reloaded) {
+            reloadedLines.add(task.toFileString());
+        }
+        assertEquals(lines, reloadedLines);
+    }
+
+    /**
+     * Verifies that tasks kept in the binary format can be exported back to text.
+     *
+     * @throws Exception if an I/O error occurs
+     */
+    @Test
+    void binaryTest2_exportToText() throws Exception {
+        Path file = tempDir.resolve("siri.txt");
+        Storage storage = new Storage(file.toString(), StorageOptions.defaults().setFormat(SnapshotFormat.BINARY));
+        List<Task> tasks = storage.load();
+        tasks.add(new ToDo("read a book"));
+        storage.recordAdd(tasks.get(0));
+        storage.commit(tasks);
+
+        storage.exportText(tasks, null);
+        assertEquals(List.of("T | 0 | read a book"), Files.readAllLines(file));
+        assertFalse(Files.exists(tempDir.resolve("siri.txt.log")));
+        assertEquals(1, new Storage(file.toString()).load().size());
+    }
+
+    /**
+     * Verifies that each format replays only its own log, so that switching formats
+     * without exporting first never applies changes to the wrong snapshot.
+     *
+     * @throws Exception if an I/O error occurs
+     */
+    @Test
+    void binaryTest3_logPerFormat() throws Exception {
+        Path file = tempDir.resolve("siri.txt");
+        Storage textStorage = new Storage(file.toString());
+        List<Task> tasks = textStorage.load();
+        tasks.add(new ToDo("read a book"));
+        textStorage.recordAdd(tasks.get(0));
+        textStorage.commit(tasks);
+        textStorage.close();
+
+        StorageOptions options = StorageOptions.defaults().setFormat(SnapshotFormat.BINARY);
+        Storage binaryStorage = new Storage(file.toString(), options);
+        tasks = binaryStorage.load();
+        assertEquals(1, tasks.size());
+        tasks.add(new ToDo("return a book"));
+        binaryStorage.recordAdd(tasks.get(1));
+        tasks.remove(0);
+        binaryStorage.recordDelete(0);
+        binaryStorage.commit(tasks);
+        binaryStorage.close();
+        assertTrue(Files.exists(tempDir.resolve("siri.bin.log")));
+
+        assertEquals("read a book", new Storage(file.toString()).load().get(0).getDescription());
+        List<Task> binaryTasks = new Storage(file.toString(), options).load();
+        assertEquals(1, binaryTasks.size());
+        assertEquals("return a book", binaryTasks.get(0).getDescription());
+    }
+
+    /**
+     * Verifies that a journaled commit below the compaction threshold does not ask for the task list.
+     *
+     * @throws Exception if an I/O error occurs
+     */
+    @Test
+    void commitWithoutSnapshotTest() throws Exception {
+        Path file = tempDir.resolve("siri.txt");
+        Storage storage = new Storage(file.toString());
+        storage.load();
+        Task task = new ToDo("read a book");
+        task.setId(1);
+        storage.recordAdd(task);
+        storage.commit(() -> {
+            throw new AssertionError("The task list should not be needed");
+        });
+        storage.close();
+        assertEquals(1, new Storage(file.toString()).load().size());
+    }
+
+    /**
+     * Verifies that lines written before descriptions were escaped are still read whole,
+     * that a line which cannot be read is skipped on its own, and that duplicate IDs are detected.
+     *
+     * @throws Exception if an I/O error occurs
+     */
+    @Test
+    void damagedLinesTest() throws Exception {
+        Path file = tempDir.resolve("siri.txt");
+        Files.write(file, List.of(
+                "T | 0 | pay rent | urgent | 2",
+                "D | 0 | submit | 2026-13-45 1800 | 3",
+                "D | 1 | call | 3 | 2026-12-29 1800 | 4",
+                "T | 0 | read \\| write | 5"));
+
+        List<Task> tasks = new Storage(file.toString()).load();
+        assertEquals(3, tasks.size());
+        assertEquals("pay rent | urgent", tasks.get(0).getDescription());
+        assertEquals("call | 3", tasks.get(1).getDescription());
+        assertEquals(4, tasks.get(1).getId());
+        assertEquals("read | write", tasks.get(2).getDescription());
+        assertEquals("T | 0 | pay rent \\| urgent | 2", tasks.get(0).toFileString());
+
+        tasks.get(2).setId(2);
+        assertTrue(TaskList.assignMissingIds(tasks, 7));
+        assertEquals(8, tasks.get(2).getId());
+    }
+
+    /**
+     * Verifies that the highest ID survives a snapshot after the task holding it was deleted.
+     *
+     * @throws Exception if an I/O error occurs
+     */
+    @Test
+    void highestIdTest() throws Exception {
+        for (SnapshotFormat format : SnapshotFormat.values()) {
+            Path file = tempDir.resolve("siri-" + format + ".txt");
+            StorageOptions options = StorageOptions.defaults().setFormat(format);
+            Storage storage = new Storage(file.toString(), options);
+            List<Task> tasks = storage.load();
+            for (int id = 1; id <= 3; id++) {
+                Task task = new ToDo("task " + id);
+                task.setId(id);
+                tasks.add(task);
+                storage.recordAdd(task);
+            }
+            tasks.remove(2);
+            storage.recordDelete(2);
+            storage.commit(tasks);
+            assertEquals(3, reload(file, options).getHighestId());
+
+            storage.save(tasks);
+            storage.close();
+            assertEquals(3, reload(file, options).getHighestId());
+        }
+    }
+
+    private static Storage reload(Path file, StorageOptions options) throws IOException {
+        Storage storage = new Storage(file.toString(), options);
+        storage.load();
+        storage.close();
+        return storage;
+    }
+
+    /**
+     * Verifies that parsing a text file on several threads keeps every task
+     * in file order, including lines ending in CRLF and a missing final line break.
+     *
+     * @throws Exception if an I/O error occurs
+     */
+    @Test
+    void parallelLoadTest() throws Exception {
+        Path file = tempDir.resolve("siri.txt");
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            content.append("T | ").append(i % 2).append(" | task ").append(i).append(i % 3 == 0 ? "\r\n" : "\n");
+        }
+        content.append("D | 0 | last task | 2026-12-29 1800");
+        Files.writeString(file, content);
+
+        List<Task> tasks = new Storage(file.toString(), StorageOptions.defaults().setParallelLoadThreshold(0)).load();
+        assertEquals(100001, tasks.size());
+        for (int i = 0; i < 100000; i++) {
+            assertEquals("task " + i, tasks.get(i).getDescription());
+        }
+        assertEquals("D | 0 | last task | 2026-12-29 1800", tasks.get(100000).toFileString());
+    }
+
+    /**
+     * Verifies that tasks loaded with the same description share one string, in both formats.
+     *
+     * @throws Exception if an I/O error occurs
+     */
+    @Test
+    void internTest() throws Exception {
+        Path file = tempDir.resolve("siri.txt");
+        Files.write(file, List.of("T | 0 | pay rent", "D | 1 | pay rent | 2026-12-29 1800", "T | 0 | standup"));
+
+        List<Task> tasks = new Storage(file.toString()).load();
+        assertSame(tasks.get(0).getDescription(), tasks.get(1).getDescription());
+        List<Task> binaryTasks = new Storage(file.toString(),
+                StorageOptions.defaults().setFormat(SnapshotFormat.BINARY)).load();
+        assertSame(tasks.get(2).getDescription(), binaryTasks.get(2).getDescription());
+    }
+
+    /**
+     * Verifies that changes which fail to be written are kept, and saved with
+     * the whole task list by the next commit.
+     *
+     * @throws Exception if an I/O error occurs
+     */
+    @Test
+    void failedWriteTest() throws Exception {
+        Path file = tempDir.resolve("siri.txt");
+        Path log = tempDir.resolve("siri.txt.log");
+        Storage storage = new Storage(file.toString());
+        List<Task> tasks = storage.load();
+        Files.createDirectories(log.resolve("blocked"));
+
+        tasks.add(new ToDo("read a book"));
+        storage.recordAdd(tasks.get(0));
+        assertThrows(IOException.class, () -> storage.commit(tasks));
+        assertThrows(IOException.class, storage::close);
+
+        Files.delete(log.resolve("blocked"));
+        Files.delete(log);
+        tasks.get(0).markDone();
+        storage.recordMark(0, true);
+        storage.commit(tasks);
+        storage.close();
+
+        assertEquals(List.of("T | 1 | read a book"), Files.readAllLines(file));
+        assertEquals(1, new Storage(file.toString()).load().size());
+    }
+
+    /**
+     * Verifies that asynchronous commits return before writing, and that
+     * the queued changes are written together once the storage is closed.
+     *
+     * @throws Exception if an I/O error occurs
+     */
+    @Test
+    void asyncTest_flushOnClose() throws Exception {
+        Path file = tempDir.resolve("siri.txt");
+        Storage storage = new Storage(file.toString(), StorageOptions.defaults()
+                .setDurability(Durability.ASYNC).setMaxFlushDelayMillis(60_000));
+        List<Task> tasks = storage.load();
+
+        for (int i = 0; i < 3; i++) {
+            tasks.add(new ToDo("task " + i));
+            storage.recordAdd(tasks.get(i));
+            storage.commit(tasks);
+        }
+        assertFalse(Files.exists(tempDir.resolve("siri.txt.log")));
+
+        storage.close();
+        assertEquals(3, Files.readAllLines(tempDir.resolve("siri.txt.log")).size());
+        assertEquals(3, new Storage(file.toString()).load().size());
+    }
+}
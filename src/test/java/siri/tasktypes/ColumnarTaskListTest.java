@@ -0,0 +1,158 @@
+package siri.tasktypes;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link ColumnarTaskList} class, which should behave like a {@link TaskList}.
+ */
+public class ColumnarTaskListTest {
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 9, 0);
+
+    /**
+     * Verifies that a random mix of adds, marks, deletes and re-inserts leaves the columnar list
+     * with the same tasks as a {@link TaskList}, answering every query the same way.
+     */
+    @Test
+    void matchesTaskListTest() {
+        TaskList expected = new TaskList(createTasks(300));
+        ColumnarTaskList actual = new ColumnarTaskList(createTasks(300));
+        Random random = new Random(42);
+        for (int step = 0; step < 400; step++) {
+            int index = random.nextInt(expected.size());
+            switch (random.nextInt(5)) {
+            case 0:
+                boolean isDone = random.nextBoolean();
+                assertEquals(expected.mark(index, isDone), actual.mark(index, isDone));
+                break;
+            case 1:
+                Task removed = expected.remove(index);
+                assertEquals(removed.toFileString(), actual.remove(index).toFileString());
+                int insertAt = random.nextInt(expected.size() + 1);
+                expected.insert(insertAt, removed);
+                actual.insert(insertAt, Task.fromFileString(removed.toFileString()));
+                break;
+            case 2:
+                BitSet selection = new BitSet();
+                selection.set(index, Math.min(expected.size(), index + random.nextInt(4)));
+                assertEquals(toFileStrings(expected.removeAll(selection)), toFileStrings(actual.removeAll(selection)));
+                break;
+            default:
+                Task task = createTask(1000 + step);
+                expected.add(task);
+                actual.add(Task.fromFileString(task.toFileString()));
+                break;
+            }
+        }
+
+        assertEquals(toFileStrings(expected.getAll()), toFileStrings(actual.getAll()));
+        assertEquals(expected.findDone(), actual.findDone());
+        assertEquals(toFileStrings(expected.findTasks("TASK 1")), toFileStrings(actual.findTasks("TASK 1")));
+        assertEquals(toFileStrings(expected.findTasks("caf\u00e9")), toFileStrings(actual.findTasks("caf\u00e9")));
+        LocalDateTime from = START.plusHours(30);
+        LocalDateTime to = START.plusHours(90).plusSeconds(30);
+        assertEquals(toFileStrings(expected.findOverlapping(from, to)), toFileStrings(actual.findOverlapping(from, to)));
+        assertEquals(toFileStrings(expected.findDueBefore(to)), toFileStrings(actual.findDueBefore(to)));
+        assertEquals(toFileStrings(expected.findUpcoming(from, 7)), toFileStrings(actual.findUpcoming(from, 7)));
+        assertEquals(toFileStrings(expected.findOverdue(to)), toFileStrings(actual.findOverdue(to)));
+        Task last = expected.get(expected.size() - 1);
+        assertEquals(last.toFileString(), actual.getById(last.getId()).toFileString());
+        assertEquals(expected.size() - 1, actual.indexOf(last));
+    }
+
+    /**
+     * Verifies that tasks handed out are copies, and that clashing events are still rejected.
+     */
+    @Test
+    void viewTest() {
+        ColumnarTaskList tasks = new ColumnarTaskList();
+        tasks.add(new ToDo("read a book"));
+        tasks.add(new Event("tutorial", "2025-12-29 1130", "2025-12-29 1230"));
+
+        tasks.get(0).markDone();
+        assertFalse(tasks.get(0).isDone());
+        assertTrue(tasks.mark(0, true));
+        assertTrue(tasks.get(0).isDone());
+        assertEquals(2, tasks.get(1).getId());
+        assertNull(tasks.getById(3));
+
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> tasks.add(new Event("lab", "2025-12-29 1230", "2025-12-29 1400")));
+        assertTrue(exception.getMessage().contains("overlaps with [E][ ] tutorial"));
+        assertEquals(2, tasks.size());
+    }
+
+    /**
+     * Verifies that tasks are found by ID while the IDs are out of order, and that repeated
+     * descriptions stay intact when the descriptions of removed tasks are compacted away.
+     */
+    @Test
+    void idLookupTest() {
+        ColumnarTaskList tasks = new ColumnarTaskList();
+        for (int i = 0; i < 200; i++) {
+            tasks.add(new ToDo(i % 2 == 0 ? "water the plants" : "task " + i));
+        }
+        Task moved = tasks.remove(151);
+        tasks.insert(10, moved);
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(i, tasks.indexOf(tasks.get(i)));
+        }
+        assertEquals("task 151", tasks.getById(152).getDescription());
+
+        BitSet selection = new BitSet();
+        selection.set(100, 200);
+        tasks.removeAll(selection);
+        tasks.remove(10);
+        assertEquals(99, tasks.size());
+        assertNull(tasks.getById(152));
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            assertEquals(task.getId() % 2 == 1 ? "water the plants" : "task " + (task.getId() - 1),
+                    tasks.getById(task.getId()).getDescription());
+        }
+    }
+
+    private static List<Task> createTasks(int count) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tasks.add(createTask(i));
+        }
+        TaskList.assignMissingIds(tasks);
+        return tasks;
+    }
+
+    /**
+     * Creates the i-th task of a list, with times that neither clash nor tie with other tasks.
+     */
+    private static Task createTask(int i) {
+        switch (i % 4) {
+        case 0:
+            return new ToDo("task " + i);
+        case 1:
+            return new Deadline("Caf\u00e9 " + i, START.plusMinutes(i * 61L));
+        case 2:
+            return new Event("task " + i, START.plusMinutes(i * 61L), START.plusMinutes(i * 61L + 45));
+        default:
+            return new ToDo("TASK " + i + " \u0130stanbul");
+        }
+    }
+
+    private static List<String> toFileStrings(List<? extends Task> tasks) {
+        List<String> fileStrings = new ArrayList<>();
+        for (Task task : tasks) {
+            fileStrings.add(task.toFileString());
+        }
+        return fileStrings;
+    }
+}
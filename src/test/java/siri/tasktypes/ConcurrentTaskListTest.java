@@ -0,0 +1,132 @@
+package siri.tasktypes;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link ConcurrentTaskList} class.
+ */
+public class ConcurrentTaskListTest {
+
+    /**
+     * Verifies that snapshots and tasks already handed out keep their state
+     * when the list changes, while new reads see the change.
+     */
+    @Test
+    void snapshotTest() {
+        ConcurrentTaskList tasks = new ConcurrentTaskList(new ArrayList<>(List.of(
+                new ToDo("read a book"), new Deadline("essay", "2025-12-31 2359"))));
+        List<Task> before = tasks.getAll();
+        Task essay = tasks.get(1);
+
+        assertTrue(tasks.mark(1, true));
+        assertFalse(essay.isDone());
+        assertFalse(before.get(1).isDone());
+        assertTrue(tasks.get(1).isDone());
+        assertEquals(1, tasks.indexOf(essay));
+        assertEquals(List.of(tasks.get(1)), tasks.findTasks("essay"));
+        assertEquals(List.of(), tasks.findDueBefore(((Deadline) essay).getBy().plusDays(1)));
+
+        tasks.remove(0);
+        assertEquals(2, before.size());
+        assertEquals(1, tasks.getAll().size());
+    }
+
+    /**
+     * Verifies that readers on other threads only ever see whole snapshots
+     * while one thread keeps adding and marking tasks.
+     *
+     * @throws Exception if a reader thread is interrupted
+     */
+    @Test
+    void concurrentReadTest() throws Exception {
+        ConcurrentTaskList tasks = new ConcurrentTaskList();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 4; r++) {
+            Thread reader = new Thread(() -> {
+                try {
+                    int lastSize = 0;
+                    while (lastSize < 2000) {
+                        List<Task> snapshot = tasks.getAll();
+                        assertTrue(snapshot.size() >= lastSize);
+                        for (int i = 0; i < snapshot.size(); i++) {
+                            assertEquals(i + 1, snapshot.get(i).getId());
+                        }
+                        lastSize = snapshot.size();
+                        tasks.findTasks("task " + lastSize);
+                    }
+                } catch (Throwable e) {
+                    failure.set(e);
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+
+        for (int i = 0; i < 2000; i++) {
+            tasks.add(new ToDo("task " + i));
+            tasks.mark(i / 2, i % 2 == 0);
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertNull(failure.get());
+        List<Task> found = tasks.findTasks("task");
+        assertEquals(2000, found.size());
+        for (int i = 0; i < found.size(); i++) {
+            assertEquals(i + 1, found.get(i).getId());
+        }
+    }
+
+    /**
+     * Verifies that lookups made without locking, while one thread keeps changing the list,
+     * only return the tasks asked for.
+     *
+     * @throws Exception if the reader thread is interrupted
+     */
+    @Test
+    void optimisticReadTest() throws Exception {
+        ConcurrentTaskList tasks = new ConcurrentTaskList();
+        AtomicBoolean isWriting = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            try {
+                long id = 1;
+                while (isWriting.get()) {
+                    Task task = tasks.getById(id);
+                    if (task != null) {
+                        assertEquals(id, task.getId());
+                        id++;
+                    }
+                    for (Task found : tasks.findTasks("task 1")) {
+                        assertTrue(found.getDescription().startsWith("task 1"));
+                    }
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        reader.start();
+        for (int i = 0; i < 2000; i++) {
+            tasks.add(new ToDo("task " + i));
+            tasks.mark(i / 2, true);
+            if (i % 3 == 0) {
+                tasks.insert(0, tasks.remove(tasks.size() - 1));
+            }
+        }
+        isWriting.set(false);
+        reader.join();
+        assertNull(failure.get());
+        assertEquals(2000, tasks.size());
+    }
+}
@@ -0,0 +1,230 @@
+package siri.tasktypes;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link TaskList} class.
+ * <p>
+ * These tests verify that the indexes kept by the task list
+ * stay consistent as tasks are added, marked and removed.
+ * </p>
+ */
+public class TaskListTest {
+
+    /**
+     * Verifies that adding an event that overlaps an existing one is rejected,
+     * and that the clash is reported against the earliest such event.
+     */
+    @Test
+    void clashTest1_overlappingEventRejected() {
+        TaskList tasks = new TaskList(new ArrayList<>(List.of(
+                new ToDo("read a book"),
+                new Event("tutorial", "2025-12-29 1130", "2025-12-29 1230"),
+                new Event("lecture", "2025-12-29 1000", "2025-12-29 1130")
+        )));
+
+        Exception exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> tasks.add(new Event("lab", "2025-12-29 1100", "2025-12-29 1400"))
+        );
+        assertTrue(exception.getMessage().contains("overlaps with [E][ ] tutorial"));
+        assertEquals(3, tasks.size());
+    }
+
+    /**
+     * Verifies that a removed event no longer clashes with new events.
+     */
+    @Test
+    void clashTest2_removedEventFreesPeriod() {
+        TaskList tasks = new TaskList();
+        tasks.add(new Event("lecture", "2025-12-29 1000", "2025-12-29 1200"));
+        tasks.remove(0);
+
+        tasks.add(new Event("lab", "2025-12-29 1100", "2025-12-29 1400"));
+        assertEquals(1, tasks.size());
+    }
+
+    /**
+     * Verifies that a clash is reported against the earliest event in the list after an event
+     * has been put back before the end, and that removing tasks restores the index order.
+     */
+    @Test
+    void clashTest3_reinsertedEventReportedFirst() {
+        TaskList tasks = new TaskList();
+        Event tutorial = new Event("tutorial", "2025-12-29 1130", "2025-12-29 1230");
+        Event lecture = new Event("lecture", "2025-12-29 1000", "2025-12-29 1100");
+        tasks.add(tutorial);
+        tasks.add(lecture);
+        tasks.add(new ToDo("read a book"));
+        tasks.insert(0, tasks.remove(1));
+        assertTrue(tasks.isIndexOrderStale());
+
+        Exception exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> tasks.add(new Event("lab", "2025-12-29 1030", "2025-12-29 1200"))
+        );
+        assertTrue(exception.getMessage().contains("overlaps with [E][ ] lecture"));
+
+        BitSet toRemove = new BitSet();
+        toRemove.set(2);
+        tasks.removeAll(toRemove);
+        assertFalse(tasks.isIndexOrderStale());
+        assertEquals(List.of(lecture, tutorial), tasks.findOverlapping(lecture.getFrom(), tutorial.getTo()));
+    }
+
+    /**
+     * Verifies that overlapping events are returned in list order, including
+     * events that only touch the ends of the period.
+     */
+    @Test
+    void findOverlappingTest() {
+        TaskList tasks = new TaskList(new ArrayList<>(List.of(
+                new Event("late", "2025-12-29 1800", "2025-12-29 1900"),
+                new Deadline("essay", "2025-12-29 1200"),
+                new Event("early", "2025-12-29 0800", "2025-12-29 1000"),
+                new Event("next day", "2025-12-30 0800", "2025-12-30 1000")
+        )));
+
+        List<Event> events = tasks.findOverlapping(
+                LocalDateTime.of(2025, 12, 29, 10, 0), LocalDateTime.of(2025, 12, 29, 18, 0));
+        assertEquals(2, events.size());
+        assertEquals("late", events.get(0).getDescription());
+        assertEquals("early", events.get(1).getDescription());
+    }
+
+    /**
+     * Verifies that keyword search ignores case, matches substrings across
+     * word boundaries and keeps list order, for both short and long keywords.
+     */
+    @Test
+    void findTasksTest1_matchesInListOrder() {
+        TaskList tasks = new TaskList();
+        tasks.add(new ToDo("Read a book"));
+        tasks.add(new Deadline("return BOOK", "2025-12-29 1800"));
+        tasks.add(new ToDo("buy milk"));
+        tasks.add(new ToDo("bookshelf"));
+
+        List<Task> matches = tasks.findTasks("bOOk");
+        assertEquals(3, matches.size());
+        assertEquals("Read a book", matches.get(0).getDescription());
+        assertEquals("return BOOK", matches.get(1).getDescription());
+        assertEquals("bookshelf", matches.get(2).getDescription());
+
+        assertEquals(1, tasks.findTasks("a b").size());
+        assertEquals(4, tasks.findTasks("K").size());
+        assertEquals(0, tasks.findTasks("novel").size());
+    }
+
+    /**
+     * Verifies that removed tasks no longer show up in search results.
+     */
+    @Test
+    void findTasksTest2_removedTaskNotFound() {
+        TaskList tasks = new TaskList();
+        tasks.add(new ToDo("read a book"));
+        tasks.add(new ToDo("read a paper"));
+        tasks.remove(0);
+
+        List<Task> matches = tasks.findTasks("read");
+        assertEquals(1, matches.size());
+        assertEquals("read a paper", matches.get(0).getDescription());
+    }
+
+    /**
+     * Verifies that due, upcoming and overdue tasks are returned earliest first,
+     * and that marking or removing a task updates the results.
+     */
+    @Test
+    void timelineTest() {
+        TaskList tasks = new TaskList(new ArrayList<>(List.of(
+                new Deadline("essay", "2025-12-31 2359"),
+                new ToDo("read a book"),
+                new Event("lecture", "2025-12-29 1000", "2025-12-29 1200"),
+                new Deadline("tax return", "2025-12-01 0900")
+        )));
+        LocalDateTime now = LocalDateTime.of(2025, 12, 15, 12, 0);
+
+        assertEquals(List.of(tasks.get(3), tasks.get(2)), tasks.findDueBefore(LocalDateTime.of(2025, 12, 30, 0, 0)));
+        assertEquals(List.of(tasks.get(2)), tasks.findUpcoming(now, 1));
+        assertEquals(List.of(tasks.get(3)), tasks.findOverdue(now));
+
+        assertTrue(tasks.mark(3, true));
+        assertTrue(tasks.findOverdue(now).isEmpty());
+        tasks.mark(3, false);
+        assertEquals(List.of(tasks.get(3)), tasks.findOverdue(now));
+
+        Task essay = tasks.get(0);
+        tasks.remove(2);
+        assertEquals(List.of(essay), tasks.findUpcoming(now, 5));
+    }
+
+    /**
+     * Verifies that tasks keep their IDs as other tasks are removed,
+     * and that the IDs are written to and read back from the file format.
+     */
+    @Test
+    void idTest() {
+        TaskList tasks = new TaskList(new ArrayList<>(List.of(new ToDo("read a book"), new ToDo("return a book"))));
+        tasks.add(new Deadline("essay", "2025-12-31 2359"));
+        Task essay = tasks.get(2);
+        assertEquals(3, essay.getId());
+
+        tasks.remove(0);
+        assertEquals(essay, tasks.getById(3));
+        assertEquals(1, tasks.indexOf(essay));
+        assertNull(tasks.getById(1));
+
+        tasks.add(new ToDo("write notes"));
+        assertEquals(4, tasks.get(2).getId());
+        assertEquals("D | 0 | essay | 2025-12-31 2359 | 3", essay.toFileString());
+        assertEquals(3, Task.fromFileString(essay.toFileString()).getId());
+    }
+
+    /**
+     * Verifies that the display and file strings kept by a task are rebuilt
+     * once the task is marked or given an ID.
+     */
+    @Test
+    void renderCacheTest() {
+        Task event = new Event("party", "2025-12-31 2000", "2025-12-31 2359");
+        String display = event.toString();
+        assertTrue(display == event.toString());
+        assertEquals("E | 0 | party | 2025-12-31 2000 | 2025-12-31 2359", event.toFileString());
+
+        TaskList tasks = new TaskList();
+        tasks.add(event);
+        tasks.mark(0, true);
+        assertTrue(event.toString().startsWith("[E][X] party (from: "));
+        assertEquals("E | 1 | party | 2025-12-31 2000 | 2025-12-31 2359 | 1", event.toFileString());
+    }
+
+    /**
+     * Verifies that a file string built while the task is being marked, as a background
+     * snapshot may do, is not returned once the task has been marked.
+     */
+    @Test
+    void renderCacheRaceTest() {
+        Task todo = new ToDo("read a book") {
+            @Override
+            protected String renderFileString() {
+                String stale = super.renderFileString();
+                markDone();
+                return stale;
+            }
+        };
+        assertEquals("T | 0 | read a book", todo.toFileString());
+        assertEquals("T | 1 | read a book", todo.toFileString());
+        assertEquals("T | 1 | read a book", todo.copy().toFileString());
+    }
+}
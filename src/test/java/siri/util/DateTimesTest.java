@@ -0,0 +1,55 @@
+package siri.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for the {@link DateTimes} class.
+ */
+public class DateTimesTest {
+
+    /**
+     * Verifies that parsing gives the same date and time as the formatter, or fails just like it,
+     * for valid input, out-of-range fields and input in another layout.
+     */
+    @Test
+    void parseTest() {
+        String[] inputs = {"2025-12-29 1800", "2024-02-29 0000", "0001-01-01 2359", "9999-12-31 2359",
+            "2025-02-29 1200", "2025-04-31 0930", "2025-13-01 1200", "2025-00-10 1200", "2025-01-32 1200",
+            "2025-06-15 2400", "2025-06-15 1260", "0000-06-15 1200", "2025-6-15 1200", "2025-06-15 12:00",
+            "2025-06-15 1200 ", "+10000-01-01 0000", "2025-06-15T1200", "\uff12025-06-15 1200", ""};
+        for (String input : inputs) {
+            LocalDateTime expected;
+            try {
+                expected = LocalDateTime.parse(input, DateTimes.FORMAT);
+            } catch (DateTimeParseException e) {
+                assertThrows(DateTimeParseException.class, () -> DateTimes.parse(input));
+                continue;
+            }
+            assertEquals(expected, DateTimes.parse(input), input);
+        }
+    }
+
+    /**
+     * Verifies that formatting gives the same text as the formatter, including years outside four digits,
+     * and that the text parses back to the same minute. Years before 1 are written as years of the era,
+     * as the formatter does, so they do not parse back.
+     */
+    @Test
+    void formatTest() {
+        LocalDateTime[] dateTimes = {LocalDateTime.of(2025, 12, 29, 18, 0), LocalDateTime.of(7, 1, 2, 3, 4, 59),
+            LocalDateTime.of(9999, 12, 31, 23, 59), LocalDateTime.of(10000, 1, 1, 0, 0),
+            LocalDateTime.of(0, 1, 1, 0, 0)};
+        for (LocalDateTime dateTime : dateTimes) {
+            assertEquals(dateTime.format(DateTimes.FORMAT), DateTimes.format(dateTime));
+            if (dateTime.getYear() >= 1) {
+                assertEquals(dateTime.withSecond(0), DateTimes.parse(DateTimes.format(dateTime)));
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package siri.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the {@link LatencyHistogram} class.
+ */
+public class LatencyHistogramTest {
+
+    /**
+     * Verifies that every duration falls in a bucket whose upper bound is within 12.5% of it,
+     * and that percentiles are reported to that precision.
+     */
+    @Test
+    void percentileTest() {
+        for (long value : new long[] {0, 7, 8, 15, 16, 1000, 123_456_789, Long.MAX_VALUE}) {
+            long upperBound = LatencyHistogram.upperBoundOf(LatencyHistogram.bucketOf(value));
+            assertTrue(upperBound >= value);
+            assertTrue(upperBound - value <= value / 8);
+        }
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMax());
+        long median = histogram.getPercentile(50);
+        assertTrue(median >= 500_000 && median <= 500_000 * 9 / 8);
+        assertEquals(1_000_000, histogram.getPercentile(100));
+    }
+}
@@ -4,6 +4,9 @@ import org.junit.jupiter.api.Test;
 import siri.exceptions.SiriException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Unit tests for the {@link Parser} utility class.
@@ -62,4 +65,78 @@ public class ParserTest {
         assertEquals("deadline", result[0]);
         assertEquals("return book /by 2025-12-29 1800", result[1]);
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that a reused parsed command identifies the keyword regardless of case
+     * and forgets the arguments of the previous command.
+     * <p>
+     * Input: {@code "  ToDo read book "}, then {@code "blah"} <br>
+     * Expected: {@code TODO} with {@code "read book"}, then {@code UNKNOWN} with no arguments
+     * </p>
+     *
+     * @throws SiriException if command parsing fails unexpectedly
+     */
+    @Test
+    void parserTest4() throws SiriException {
+        ParsedCommand command = Parser.parse("  ToDo read book ", new ParsedCommand());
+        assertEquals(CommandType.TODO, command.getType());
+        assertEquals("read book", command.getArguments());
+
+        Parser.parse("blah", command);
+        assertEquals(CommandType.UNKNOWN, command.getType());
+        assertEquals("blah", command.getKeyword());
+        assertFalse(command.hasArguments());
+        assertEquals("", command.getArguments());
+    }
+
+    /**
+     * Tests parsing the paging options of {@code list} and {@code find}.
+     * <p>
+     * Input: {@code "read book --page 3"} <br>
+     * Expected: page 3 of {@link Page#DEFAULT_LIMIT} tasks, searching for {@code "read book"}
+     * </p>
+     *
+     * @throws SiriException if parsing fails unexpectedly
+     */
+    @Test
+    void parserTest5() throws SiriException {
+        Page page = Parser.parsePage("read book --page 3");
+        assertEquals("read book", page.getRemainder());
+        assertEquals(2 * Page.DEFAULT_LIMIT, page.fromIndex());
+
+        page = Parser.parsePage("a--b --limit 5");
+        assertEquals("a--b", page.getRemainder());
+        assertEquals(0, page.fromIndex());
+        assertEquals(3, page.toIndex(3));
+        assertEquals(2, page.pageCount(6));
+
+        assertTrue(Parser.parsePage("book").isAll());
+        assertThrows(SiriException.class, () -> Parser.parsePage("--page 0"));
+        assertThrows(SiriException.class, () -> Parser.parsePage("book --limit two"));
+        assertThrows(SiriException.class, () -> Parser.parsePage("book --page"));
+    }
+
+    /**
+     * Tests that only options at the end are parsed, leaving a keyword containing {@code --} as typed.
+     * <p>
+     * Input: {@code "a --b"}, {@code "--page 2 book"} and {@code " a --b  --page 2"} <br>
+     * Expected: the first two are searched for as typed, and the last is page 2 of {@code " a --b"}
+     * </p>
+     *
+     * @throws SiriException if parsing fails unexpectedly
+     */
+    @Test
+    void parserTest6() throws SiriException {
+        Page page = Parser.parsePage("a --b");
+        assertTrue(page.isAll());
+        assertEquals("a --b", page.getRemainder());
+
+        page = Parser.parsePage("--page 2 book");
+        assertTrue(page.isAll());
+        assertEquals("--page 2 book", page.getRemainder());
+
+        page = Parser.parsePage(" a --b  --page 2");
+        assertEquals(" a --b", page.getRemainder());
+        assertEquals(2, page.getNumber());
+    }
+}
@@ -0,0 +1,33 @@
+package siri.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Unit tests for the {@link StringInterner} class.
+ */
+public class StringInternerTest {
+
+    /**
+     * Verifies that equal strings share the first instance looked up, that lookups are counted,
+     * and that a string hashed to a taken slot replaces the string there.
+     */
+    @Test
+    void internTest() {
+        StringInterner interner = new StringInterner(1);
+        String first = interner.intern(new String("standup"));
+        assertSame(first, interner.intern(new String("standup")));
+        assertEquals(1, interner.getHits());
+        assertEquals(1, interner.getMisses());
+        assertEquals(0.5, interner.getHitRate());
+
+        for (int i = 0; i < 10; i++) {
+            interner.intern("pay rent " + i);
+        }
+        assertNotSame(first, interner.intern(new String("standup")));
+        assertEquals(12, interner.getMisses());
+    }
+}